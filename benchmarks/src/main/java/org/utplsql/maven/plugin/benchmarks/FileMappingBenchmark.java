@@ -0,0 +1,65 @@
+package org.utplsql.maven.plugin.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.api.KeyValuePair;
+import org.utplsql.maven.plugin.helper.ObjectMappingHelper;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Construction of the {@link FileMapperOptions} of thousands of paths and the
+ * Java side mapping of these paths to database objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileMappingBenchmark {
+
+    @Param({ "1000", "10000", "60000" })
+    public int fileCount;
+
+    private List<String> paths;
+
+    private FileMapperOptions options;
+
+    @Setup
+    public void setUp() {
+        paths = SyntheticTree.paths(fileCount);
+        options = buildOptions();
+    }
+
+    @Benchmark
+    public FileMapperOptions buildOptions() {
+        FileMapperOptions fileMapperOptions = new FileMapperOptions(new ArrayList<>(paths));
+        fileMapperOptions.setObjectOwner("app");
+        fileMapperOptions.setTypeMappings(new ArrayList<>());
+        fileMapperOptions.getTypeMappings().add(new KeyValuePair("pks", "package"));
+        return fileMapperOptions;
+    }
+
+    @Benchmark
+    public List<DatabaseObject> mapObjects() {
+        List<DatabaseObject> objects = new ArrayList<>(paths.size());
+        for (String path : options.getFilePaths()) {
+            objects.add(ObjectMappingHelper.toDatabaseObject(path, options, "SCOTT"));
+        }
+        return objects;
+    }
+}
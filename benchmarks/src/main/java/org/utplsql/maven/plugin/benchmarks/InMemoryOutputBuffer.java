@@ -0,0 +1,61 @@
+package org.utplsql.maven.plugin.benchmarks;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Output buffer stub producing report lines from memory, fetched in batches of
+ * the fetch size like the database output buffer does.
+ */
+public class InMemoryOutputBuffer {
+
+    private final String[] lines;
+
+    private int fetchSize = 100;
+
+    /**
+     * Creates a buffer of synthetic report lines.
+     *
+     * @param lineCount  the number of lines
+     * @param lineLength the length of each line
+     */
+    public InMemoryOutputBuffer(int lineCount, int lineLength) {
+        lines = new String[lineCount];
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            line.setLength(0);
+            line.append("<testCase name=\"test_").append(i).append("\" duration=\"").append(i % 997).append("\">");
+            while (line.length() < lineLength) {
+                line.append('x');
+            }
+            lines[i] = line.toString();
+        }
+    }
+
+    /**
+     * Sets the number of lines fetched per batch.
+     *
+     * @param fetchSize the fetch size
+     * @return this buffer
+     */
+    public InMemoryOutputBuffer setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Prints all the lines to the given streams, one batch at a time.
+     *
+     * @param printStreams the streams to print to
+     */
+    public void printAvailable(List<PrintStream> printStreams) {
+        for (int start = 0; start < lines.length; start += fetchSize) {
+            int end = Math.min(lines.length, start + fetchSize);
+            for (int i = start; i < end; i++) {
+                for (PrintStream printStream : printStreams) {
+                    printStream.println(lines[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.utplsql.maven.plugin.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Struct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Database connection stand-in, each statement execution costing a round trip
+ * of the given latency. The out parameters are reporter objects with a fresh
+ * id.
+ */
+public class LatencyConnection {
+
+    private final long latencyNanos;
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    /**
+     * Creates a new stand-in.
+     *
+     * @param latencyMicros the latency of a round trip, in microseconds
+     */
+    public LatencyConnection(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+
+    /**
+     * Returns the number of round trips made so far.
+     *
+     * @return the number of round trips
+     */
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * Returns a connection whose statements make the round trips.
+     *
+     * @return the connection
+     */
+    public Connection getConnection() {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "isWrapperFor":
+                return true;
+            case "prepareCall":
+                return createStatement();
+            default:
+                return null;
+            }
+        });
+    }
+
+    private CallableStatement createStatement() {
+        return proxy(CallableStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "execute":
+                roundTrips.incrementAndGet();
+                if (latencyNanos > 0) {
+                    LockSupport.parkNanos(latencyNanos);
+                }
+                return true;
+            case "getObject":
+                Object[] attributes = { "UT_REPORTER_BASE", Long.toHexString(ids.incrementAndGet()) };
+                return proxy(Struct.class, (struct, structMethod, structArgs) -> attributes);
+            default:
+                return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(LatencyConnection.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
@@ -0,0 +1,78 @@
+package org.utplsql.maven.plugin.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.utplsql.maven.plugin.reporter.ReportSink;
+
+/**
+ * Throughput of the report file writing of the reporter writer, draining an in
+ * memory output buffer into a {@link ReportSink}, against the unbuffered print
+ * stream it replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportWritingBenchmark {
+
+    @Param({ "10000", "200000" })
+    public int lineCount;
+
+    @Param({ "120" })
+    public int lineLength;
+
+    private InMemoryOutputBuffer buffer;
+
+    private File directory;
+
+    private File report;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        buffer = new InMemoryOutputBuffer(lineCount, lineLength);
+        directory = Files.createTempDirectory("utplsql-benchmark").toFile();
+        report = new File(directory, "report.xml");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticTree.delete(directory);
+    }
+
+    @Benchmark
+    public long reportSink() throws IOException {
+        ReportSink sink = new ReportSink(report);
+        buffer.printAvailable(Collections.singletonList(sink.getPrintStream()));
+        sink.close();
+        return sink.getBytesWritten();
+    }
+
+    @Benchmark
+    public long unbufferedPrintStream() throws IOException {
+        try (PrintStream printStream = new PrintStream(new FileOutputStream(report), false, "UTF-8")) {
+            buffer.printAvailable(Collections.singletonList(printStream));
+        }
+        return report.length();
+    }
+}
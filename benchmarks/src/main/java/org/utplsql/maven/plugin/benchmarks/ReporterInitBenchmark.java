@@ -0,0 +1,115 @@
+package org.utplsql.maven.plugin.benchmarks;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.utplsql.api.reporter.ReporterFactory;
+import org.utplsql.maven.plugin.reporter.ReporterBatch;
+
+/**
+ * Time to create the reporters of a run on a connection stand-in with a network
+ * latency, one database call per reporter as the reporter initialization does,
+ * against the single call of the reporter batch. The round trips and operations
+ * are reported as secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReporterInitBenchmark {
+
+    @Param({ "2", "6" })
+    public int reporterCount;
+
+    @Param({ "500", "2000" })
+    public int latencyMicros;
+
+    private LatencyConnection connection;
+
+    private ReporterFactory reporterFactory;
+
+    private List<String> typeNames;
+
+    /**
+     * Round trips and operations of an iteration, their ratio being the round
+     * trips per operation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        public long roundTrips;
+
+        public long operations;
+
+        private LatencyConnection connection;
+
+        private long start;
+
+        @Setup(Level.Iteration)
+        public void setUp(ReporterInitBenchmark benchmark) {
+            connection = benchmark.connection;
+            roundTrips = 0;
+            operations = 0;
+            start = connection.getRoundTrips();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            roundTrips = connection.getRoundTrips() - start;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connection = new LatencyConnection(latencyMicros);
+        reporterFactory = ReporterFactory.createEmpty();
+        typeNames = new ArrayList<>();
+        for (int i = 0; i < reporterCount; i++) {
+            typeNames.add("UT_REPORTER_" + i);
+        }
+    }
+
+    @Benchmark
+    public int perReporter(RoundTrips roundTrips) throws SQLException {
+        int created = 0;
+        for (String typeName : typeNames) {
+            ReporterBatch reporterBatch = new ReporterBatch(reporterFactory, connection.getConnection());
+            reporterBatch.createAll(Collections.singletonList(typeName));
+            created += reporterBatch.create(typeName) != null ? 1 : 0;
+        }
+        roundTrips.operations++;
+        return created;
+    }
+
+    @Benchmark
+    public int batched(RoundTrips roundTrips) throws SQLException {
+        int created = 0;
+        ReporterBatch reporterBatch = new ReporterBatch(reporterFactory, connection.getConnection());
+        reporterBatch.createAll(typeNames);
+        for (String typeName : typeNames) {
+            created += reporterBatch.create(typeName) != null ? 1 : 0;
+        }
+        roundTrips.operations++;
+        return created;
+    }
+}
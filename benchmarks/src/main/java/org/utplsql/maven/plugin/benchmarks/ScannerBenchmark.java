@@ -0,0 +1,94 @@
+package org.utplsql.maven.plugin.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Resource;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.utplsql.maven.plugin.helper.SQLScannerHelper;
+
+/**
+ * Scanning of a synthetic source tree by {@link SQLScannerHelper}, with and
+ * without the scan cache, against the plexus {@link DirectoryScanner} it
+ * replaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScannerBenchmark {
+
+    @Param({ "1000", "60000" })
+    public int fileCount;
+
+    private File baseDir;
+
+    private File cacheDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        baseDir = SyntheticTree.create(fileCount);
+        cacheDirectory = new File(baseDir, "target/utplsql/scan-cache");
+        // Timestamps too close to the scan are not trusted by the cache.
+        long modified = System.currentTimeMillis() - 60000;
+        try (Stream<Path> paths = Files.walk(baseDir.toPath())) {
+            paths.forEach(path -> path.toFile().setLastModified(modified));
+        }
+        SQLScannerHelper.findSQLs(baseDir, resources(), null, null, cacheDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SyntheticTree.delete(baseDir);
+    }
+
+    @Benchmark
+    public List<String> walk() {
+        return SQLScannerHelper.findSQLs(baseDir, resources(), null, null);
+    }
+
+    @Benchmark
+    public List<String> cached() {
+        return SQLScannerHelper.findSQLs(baseDir, resources(), null, null, cacheDirectory);
+    }
+
+    @Benchmark
+    public String[] plexusDirectoryScanner() {
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir(new File(baseDir, "src/main/plsql"));
+        scanner.setIncludes(new String[] { "**/*.*" });
+        scanner.setExcludes(new String[] { "**/generated/**" });
+        scanner.scan();
+        return scanner.getIncludedFiles();
+    }
+
+    private static List<Resource> resources() {
+        Resource resource = new Resource();
+        resource.setDirectory("src/main/plsql");
+        resource.setIncludes(Collections.singletonList("**/*.*"));
+        resource.setExcludes(Arrays.asList("**/generated/**"));
+        return Collections.singletonList(resource);
+    }
+}
@@ -0,0 +1,76 @@
+package org.utplsql.maven.plugin.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic PL/SQL project tree used by the benchmarks.
+ *
+ * Files are spread over {@code src/main/plsql/<module>/<kind>/}, one in ten
+ * being generated under a {@code generated} directory, the way a large
+ * monorepo module looks.
+ */
+public final class SyntheticTree {
+
+    private static final String[] KINDS = { "packages", "types", "triggers", "procedures" };
+
+    private static final String[] EXTENSIONS = { "pks", "pkb", "tpb", "trg", "prc" };
+
+    private SyntheticTree() {
+        // NA
+    }
+
+    /**
+     * Creates a tree of empty files.
+     *
+     * @param fileCount the number of files
+     * @return the base directory of the tree
+     * @throws IOException if the tree cannot be created
+     */
+    public static File create(int fileCount) throws IOException {
+        File baseDir = Files.createTempDirectory("utplsql-benchmark").toFile();
+        for (String path : paths(fileCount)) {
+            File file = new File(baseDir, path);
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), ("-- " + path + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return baseDir;
+    }
+
+    /**
+     * Returns the relative paths of a tree, without creating it.
+     *
+     * @param fileCount the number of files
+     * @return the relative file paths
+     */
+    public static List<String> paths(int fileCount) {
+        List<String> paths = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            String module = String.format("module_%03d", i % 200);
+            String kind = KINDS[i % KINDS.length];
+            String directory = i % 10 == 0 ? "generated/" + kind : kind;
+            paths.add(String.format("src/main/plsql/%s/%s/app.object_%06d.%s", module, directory, i,
+                    EXTENSIONS[i % EXTENSIONS.length]));
+        }
+        return paths;
+    }
+
+    /**
+     * Deletes a tree.
+     *
+     * @param baseDir the base directory of the tree
+     * @throws IOException if the tree cannot be deleted
+     */
+    public static void delete(File baseDir) throws IOException {
+        try (Stream<Path> paths = Files.walk(baseDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.utplsql.maven.plugin;
+
+import static java.lang.String.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.maven.plugin.coverage.CoverageData;
+import org.utplsql.maven.plugin.coverage.CoverageFormat;
+import org.utplsql.maven.plugin.helper.PluginDefault;
+import org.utplsql.maven.plugin.helper.ReporterDefault;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.reporter.ReporterWriter;
+
+/**
+ * Merges the coverage data saved by the executions of the {@code test} goal,
+ * or copied from other build shards, into a single set of coverage reports.
+ *
+ * No database connection is needed: the reports are rendered from the data
+ * files of the coverage data directory.
+ */
+@Mojo(name = "merge-coverage", defaultPhase = LifecyclePhase.VERIFY)
+public class MergeCoverageMojo extends AbstractMojo {
+
+    @Parameter(readonly = true, defaultValue = "${project}")
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true)
+    protected String targetDir;
+
+    @Parameter(property = "utplsql.coverageDataDirectory")
+    protected String coverageDataDirectory;
+
+    @Parameter
+    protected List<ReporterParameter> reporters = new ArrayList<>();
+
+    /**
+     * Executes the plugin.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        File directory = getCoverageDataDirectory();
+        File[] dataFiles = directory.listFiles((dir, name) -> name.endsWith(PluginDefault.COVERAGE_DATA_EXTENSION));
+        if (dataFiles == null || dataFiles.length == 0) {
+            getLog().warn("No coverage data found in " + directory.getAbsolutePath());
+            return;
+        }
+        Arrays.sort(dataFiles);
+
+        CoverageData coverage = new CoverageData();
+        for (File dataFile : dataFiles) {
+            try {
+                coverage.addAll(CoverageData.read(dataFile));
+            } catch (IOException e) {
+                throw new MojoExecutionException("Unable to read the coverage data " + dataFile, e);
+            }
+            getLog().debug("Merged coverage data " + dataFile);
+        }
+        getLog().info(format("Merged the coverage of %d files from %d executions", coverage.getFiles().size(),
+                dataFiles.length));
+
+        ReporterWriter reporterWriter = new ReporterWriter(targetDir, null);
+        reporterWriter.setBaseDirectory(project != null ? project.getBasedir() : null);
+        buildReporterParameters().forEach(reporterWriter::addCoverageOutput);
+        reporterWriter.writeCoverageReports(coverage, System.out);
+    }
+
+    private File getCoverageDataDirectory() {
+        if (coverageDataDirectory == null) {
+            return new File(targetDir, PluginDefault.COVERAGE_DATA_DIRECTORY);
+        }
+        File directory = new File(coverageDataDirectory);
+        return directory.isAbsolute() ? directory : new File(targetDir, coverageDataDirectory);
+    }
+
+    private List<ReporterParameter> buildReporterParameters() {
+        List<ReporterParameter> coverageReporters = new ArrayList<>();
+        for (ReporterParameter reporterParameter : reporters) {
+            if (CoverageFormat.of(reporterParameter.getName()) != null) {
+                coverageReporters.add(reporterParameter);
+            } else {
+                getLog().warn("Reporter " + reporterParameter.getName() + " is not a coverage reporter, skipped");
+            }
+        }
+
+        if (coverageReporters.isEmpty()) {
+            ReporterParameter reporterParameter = new ReporterParameter();
+            reporterParameter.setName(CoreReporters.UT_COVERAGE_SONAR_REPORTER.name());
+            reporterParameter.setFileOutput(ReporterDefault.UT_COVERAGE_SONAR_REPORTER.getOutputFile());
+            reporterParameter.setConsoleOutput(false);
+            coverageReporters.add(reporterParameter);
+        }
+
+        for (ReporterParameter reporterParameter : coverageReporters) {
+            if (!reporterParameter.isFileOutput() && null == reporterParameter.getConsoleOutput()) {
+                reporterParameter.setConsoleOutput(true);
+            }
+        }
+        return coverageReporters;
+    }
+}
@@ -1,16 +1,39 @@
 package org.utplsql.maven.plugin;
 
+import static java.lang.String.format;
+
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -29,12 +52,35 @@ import org.utplsql.api.exception.SomeTestsFailedException;
 import org.utplsql.api.reporter.CoreReporters;
 import org.utplsql.api.reporter.Reporter;
 import org.utplsql.api.reporter.ReporterFactory;
+import org.utplsql.maven.plugin.coverage.CoverageFormat;
+import org.utplsql.maven.plugin.deploy.DeploymentPlan;
+import org.utplsql.maven.plugin.deploy.ParallelDeployer;
+import org.utplsql.maven.plugin.helper.DataSourceHelper;
+import org.utplsql.maven.plugin.helper.FrameworkVersionCache;
+import org.utplsql.maven.plugin.helper.ObjectMappingHelper;
 import org.utplsql.maven.plugin.helper.PluginDefault;
+import org.utplsql.maven.plugin.helper.ReporterDefault;
 import org.utplsql.maven.plugin.helper.SQLScannerHelper;
+import org.utplsql.maven.plugin.incremental.ChangeTracker;
+import org.utplsql.maven.plugin.incremental.Fingerprint;
+import org.utplsql.maven.plugin.incremental.TestSelector;
+import org.utplsql.maven.plugin.incremental.UpToDateCheck;
+import org.utplsql.maven.plugin.metrics.ExecutionMetrics;
+import org.utplsql.maven.plugin.metrics.SessionStatistics;
+import org.utplsql.maven.plugin.model.DatabaseObject;
 import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.model.TargetParameter;
+import org.utplsql.maven.plugin.reporter.Compression;
+import org.utplsql.maven.plugin.reporter.FailFastListener;
+import org.utplsql.maven.plugin.reporter.LocalReporters;
+import org.utplsql.maven.plugin.reporter.ReporterBatch;
 import org.utplsql.maven.plugin.reporter.ReporterWriter;
+import org.utplsql.maven.plugin.runner.DurationHistory;
+import org.utplsql.maven.plugin.runner.FailedTests;
+import org.utplsql.maven.plugin.runner.ParallelRunner;
+import org.utplsql.maven.plugin.runner.TargetsSummary;
 
-import oracle.jdbc.pool.OracleDataSource;
+import oracle.jdbc.OracleConnection;
 
 /**
  * This class expose the {@link TestRunner} interface to Maven.
@@ -42,10 +88,14 @@ import oracle.jdbc.pool.OracleDataSource;
  * @author Alberto Hernández
  */
 @Mojo(name = "test", defaultPhase = LifecyclePhase.TEST)
-public class UtPLSQLMojo extends AbstractMojo {
+public class UtPLSQLMojo extends AbstractMojo implements Cloneable {
+
+    // Executions of the current build still running, guarded by the class lock.
+    private static Object runningBuild;
+    private static int runningExecutions;
 
     @Parameter(readonly = true, defaultValue = "${project}")
-    private MavenProject project;
+    protected MavenProject project;
 
     @Parameter(property = "dbUrl")
     protected String url;
@@ -130,6 +180,81 @@ public class UtPLSQLMojo extends AbstractMojo {
     @Parameter(defaultValue = "${maven.test.failure.ignore}")
     protected boolean ignoreFailure;
 
+    @Parameter(defaultValue = "false")
+    protected boolean streamReporters;
+
+    @Parameter(defaultValue = "1")
+    protected int reporterThreads;
+
+    @Parameter
+    protected Integer reporterFetchSize;
+
+    @Parameter
+    protected Integer reporterLobPrefetchSize;
+
+    @Parameter
+    protected Map<String, String> connectionProperties = new HashMap<>();
+
+    @Parameter(defaultValue = "false")
+    protected boolean poolConnections;
+
+    @Parameter(defaultValue = "1")
+    protected int parallelism;
+
+    @Parameter(property = "utplsql.incremental", defaultValue = "false")
+    protected boolean incremental;
+
+    @Parameter(property = "utplsql.upToDateCheck", defaultValue = "false")
+    protected boolean upToDateCheck;
+
+    @Parameter(property = "utplsql.scanCache", defaultValue = "false")
+    protected boolean scanCache;
+
+    @Parameter(defaultValue = "true")
+    protected boolean writeMetrics;
+
+    @Parameter
+    protected String metricsPrometheusFile;
+
+    @Parameter(property = "utplsql.coverageOnly", defaultValue = "false")
+    protected boolean coverageOnly;
+
+    @Parameter(property = "utplsql.saveCoverageData", defaultValue = "false")
+    protected boolean saveCoverageData;
+
+    @Parameter(readonly = true, defaultValue = "${mojoExecution}")
+    private MojoExecution mojoExecution;
+
+    @Parameter(readonly = true, defaultValue = "${session}")
+    private MavenSession mavenSession;
+
+    @Parameter(property = "utplsql.failFast", defaultValue = "false")
+    protected boolean failFast;
+
+    @Parameter(property = "utplsql.failFastThreshold", defaultValue = "1")
+    protected int failFastThreshold;
+
+    @Parameter(property = "utplsql.recordFailedTests", defaultValue = "false")
+    protected boolean recordFailedTests;
+
+    @Parameter(property = "utplsql.rerunFailed", defaultValue = "false")
+    protected boolean rerunFailed;
+
+    @Parameter(property = "utplsql.rerunFullSuite", defaultValue = "false")
+    protected boolean rerunFullSuite;
+
+    @Parameter
+    protected List<TargetParameter> targets = new ArrayList<>();
+
+    @Parameter(defaultValue = "4")
+    protected int targetThreads;
+
+    @Parameter(property = "utplsql.deploy", defaultValue = "false")
+    protected boolean deploy;
+
+    @Parameter(property = "utplsql.deployThreads", defaultValue = "4")
+    protected int deployThreads;
+
     // Color in the console, bases on Maven logging configuration.
     private boolean colorConsole = MessageUtils.isColorEnabled();
 
@@ -137,6 +262,27 @@ public class UtPLSQLMojo extends AbstractMojo {
 
     private DatabaseInformation databaseInformation = new DefaultDatabaseInformation();
 
+    // Paths and coverage objects of the run, narrowed in incremental mode.
+    private List<String> runPaths;
+
+    private List<String> runIncludeObjects;
+
+    private ExecutionMetrics executionMetrics;
+
+    private FailFastListener failFastListener;
+
+    // Set when the failed tests are recorded from the realtime reporter events.
+    private FailedTests failedTests;
+
+    // Name of the target run by a copy of a fan-out execution.
+    private String targetName;
+
+    // Console of the reporters, buffered for the targets run at the same time.
+    private PrintStream console = System.out;
+
+    // Set when the framework version makes the compatibility check redundant.
+    private boolean frameworkCompatible;
+
     /**
      * Executes the plugin.
      */
@@ -145,64 +291,879 @@ public class UtPLSQLMojo extends AbstractMojo {
 
         getLog().debug("Java Api Version = " + JavaApiVersionInfo.getVersion());
         loadConfFromEnvironment();
+        checkReporterParameters();
+        startBuild();
+        try {
+            if (!targets.isEmpty()) {
+                executeTargets();
+            } else {
+                executeRun();
+            }
+        } finally {
+            endBuild();
+        }
+    }
+
+    /**
+     * Runs the tests of this execution.
+     */
+    private void executeRun() throws MojoExecutionException {
+        executionMetrics = new ExecutionMetrics();
+        failFastListener = failFast ? new FailFastListener(failFastThreshold) : null;
+        failedTests = null;
 
         Connection connection = null;
+        DataSource ds = null;
+        boolean runCompleted = false;
+        boolean runSucceeded = false;
+        UpToDateCheck upToDate = null;
+        String fingerprint = null;
+        Long startRoundTrips = null;
         try {
-            FileMapperOptions sourceMappingOptions = buildSourcesOptions();
-            FileMapperOptions testMappingOptions = buildTestsOptions();
-            OracleDataSource ds = new OracleDataSource();
-            ds.setURL(url);
-            ds.setUser(user);
-            ds.setPassword(password);
-            connection = ds.getConnection();
-
-            Version utlVersion = this.databaseInformation.getUtPlsqlFrameworkVersion(connection);
-            getLog().info("utPLSQL Version = " + utlVersion);
+            // The connection handshake and the framework version probe overlap the resource scan. An
+            // up-to-date run needs no version, it is then probed once the check has failed.
+            ExecutorService sessionExecutor = Executors.newSingleThreadExecutor();
+            Future<Session> sessionFuture = sessionExecutor.submit(() -> openSession(!upToDateCheck));
+            sessionExecutor.shutdown();
+
+            ExecutionMetrics.Timer timer = executionMetrics.start("scan");
+            FileMapperOptions sourceMappingOptions;
+            FileMapperOptions testMappingOptions;
+            try {
+                sourceMappingOptions = buildSourcesOptions();
+                testMappingOptions = buildTestsOptions();
+            } catch (MojoExecutionException | RuntimeException e) {
+                discardSession(sessionFuture);
+                throw e;
+            }
+            timer.stop();
+            executionMetrics.add("sourceFiles", sourceMappingOptions.getFilePaths().size());
+            executionMetrics.add("testFiles", testMappingOptions.getFilePaths().size());
+
+            Session session = awaitSession(sessionFuture);
+            ds = session.dataSource;
+            connection = session.connection;
+            startRoundTrips = session.startRoundTrips;
+
+            // Unchanged files deployed by the last successful run need no deployment.
+            if (upToDateCheck) {
+                timer = executionMetrics.start("upToDateCheck");
+                upToDate = loadUpToDateCheck();
+                fingerprint = buildFingerprint(connection, sourceMappingOptions, testMappingOptions);
+                boolean isUpToDate = restoreUpToDateReports(upToDate, fingerprint);
+                timer.stop();
+                if (isUpToDate) {
+                    return;
+                }
+            }
 
-            List<Reporter> reporterList = initReporters(connection, utlVersion, ReporterFactory.createEmpty());
+            if (deploy) {
+                timer = executionMetrics.start("deploy");
+                deploySources(ds, sourceMappingOptions, testMappingOptions,
+                        databaseInformation.getCurrentSchema(connection));
+                if (poolConnections) {
+                    // Pooled sessions may keep the state of the packages just compiled again.
+                    DataSourceHelper.resetSessions(ds);
+                    connection.close();
+                    connection = ds.getConnection();
+                    startRoundTrips = writeMetrics
+                            ? SessionStatistics.getStatistic(connection, SessionStatistics.ROUND_TRIPS)
+                            : null;
+                }
+                timer.stop();
 
-            logParameters(sourceMappingOptions, testMappingOptions, reporterList);
+                if (upToDate != null) {
+                    // The deployment changes the schema state, the run is saved with the new one.
+                    timer = executionMetrics.start("upToDateCheck");
+                    fingerprint = buildFingerprint(connection, sourceMappingOptions, testMappingOptions);
+                    timer.stop();
+                }
+            }
+
+            Version utlVersion = session.version;
+            if (utlVersion == null) {
+                timer = executionMetrics.start("version");
+                utlVersion = getFrameworkVersion(connection);
+                timer.stop();
+            }
+            getLog().info("utPLSQL Version = " + utlVersion);
 
-            TestRunner runner = new TestRunner()
-                    .addPathList(paths)
-                    .addReporterList(reporterList)
-                    .sourceMappingOptions(sourceMappingOptions)
-                    .testMappingOptions(testMappingOptions)
-                    .skipCompatibilityCheck(skipCompatibilityCheck)
-                    .colorConsole(colorConsole)
-                    .addTags(tags)
-                    .randomTestOrder(randomTestOrder)
-                    .randomTestOrderSeed(randomTestOrderSeed)
-                    .failOnErrors(!ignoreFailure);
+            runPaths = paths;
+            runIncludeObjects = StringUtils.isNotBlank(includeObject) ? Collections.singletonList(includeObject)
+                    : Collections.emptyList();
 
-            if (StringUtils.isNotBlank(excludeObject)) {
-                runner.excludeObject(excludeObject);
+            FailedTests previousFailures = loadFailedTests();
+            // A rerun records the tests still failing for the next one.
+            if ((recordFailedTests || rerunFailed) && supportsRealtimeReporter(utlVersion)) {
+                failedTests = previousFailures;
             }
-            if (StringUtils.isNotBlank(includeObject)) {
-                runner.includeObject(includeObject);
+            boolean rerun = rerunFailed && selectFailedTests(previousFailures);
+            if (rerun) {
+                upToDate = null;
             }
 
-            runner.run(connection);
+            ChangeTracker changeTracker = null;
+            if (incremental && !rerun) {
+                timer = executionMetrics.start("testSelection");
+                changeTracker = loadChangeTracker();
+                boolean testsSelected = selectAffectedTests(connection, changeTracker, sourceMappingOptions,
+                        testMappingOptions);
+                timer.stop();
+                if (!testsSelected) {
+                    return;
+                }
+                if (runPaths != paths) {
+                    // The reports of a narrowed run do not cover the whole suite.
+                    upToDate = null;
+                }
+            }
+
+            // Failing tests end the run with a SomeTestsFailedException, even when the failures are ignored.
+            runTests(ds, connection, utlVersion, sourceMappingOptions, testMappingOptions);
+            if (rerun && rerunFullSuite) {
+                getLog().info("The failed tests pass, running the whole suite");
+                if (reporterWriter != null) {
+                    writeReporters(ds, connection, true);
+                    reporterWriter = null;
+                }
+                saveFailedTests();
+                runPaths = paths;
+                runTests(ds, connection, utlVersion, sourceMappingOptions, testMappingOptions);
+            }
+            runCompleted = true;
+            runSucceeded = true;
+
+            if (changeTracker != null) {
+                try {
+                    changeTracker.save();
+                } catch (IOException e) {
+                    getLog().warn("Unable to save the file hashes: " + e.getMessage());
+                }
+            }
 
         } catch (SomeTestsFailedException e) {
+            runCompleted = true;
             if (!this.ignoreFailure) {
                 throw new MojoExecutionException(e.getMessage(), e);
             }
+            // Not a successful run: its reports are not kept as up to date.
+            getLog().warn(e.getMessage());
         } catch (SQLException e) {
-            throw new MojoExecutionException(e.getMessage(), e);
+            if (failFastListener == null || !failFastListener.isStopped()) {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
+            String message = format("Run stopped after %d failing tests", failFastListener.getFailures());
+            if (!this.ignoreFailure) {
+                throw new MojoExecutionException(message, e);
+            }
+            getLog().warn(message);
         } finally {
             try {
                 if (null != connection) {
-                    reporterWriter.writeReporters(connection);
+                    // The parallel runner writes the reporters of each unit itself.
+                    if (reporterWriter != null) {
+                        ExecutionMetrics.Timer timer = executionMetrics.start("reportDrain");
+                        writeReporters(ds, connection, runCompleted);
+                        timer.stop();
+                    }
+                    if (startRoundTrips != null) {
+                        Long endRoundTrips = SessionStatistics.getStatistic(connection, SessionStatistics.ROUND_TRIPS);
+                        if (endRoundTrips != null) {
+                            executionMetrics.add("roundTrips", endRoundTrips - startRoundTrips);
+                        }
+                    }
                     connection.close();
                 }
             } catch (Exception e) {
                 getLog().error(e.getMessage(), e);
             }
+            // Recorded once the realtime reporter events are drained.
+            if (runCompleted || failFastListener != null && failFastListener.isStopped()) {
+                saveFailedTests();
+            }
+            saveMetrics();
+        }
+
+        // Saved once the reports are written.
+        if (upToDate != null && runSucceeded) {
+            try {
+                upToDate.save(fingerprint, getReportFiles());
+            } catch (IOException e) {
+                getLog().warn("Unable to save the up-to-date state: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs the tests on each target, a copy of this execution with the target
+     * connection settings and its own build directory, up to targetThreads
+     * targets at the same time.
+     */
+    private void executeTargets() throws MojoExecutionException {
+        // Settles the shared reporter configuration before the copies read it.
+        buildReporterParameters();
+
+        List<UtPLSQLMojo> executions = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            executions.add(copyFor(targets.get(i), i));
+        }
+        int threads = Math.max(1, Math.min(targetThreads, executions.size()));
+        getLog().info(format("Running the tests on %d targets, %d at a time", executions.size(), threads));
+
+        TargetsSummary summary = new TargetsSummary();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Outcomes are kept in target order, whatever order the targets finish in.
+            String[] failures = new String[executions.size()];
+            long[] durations = new long[executions.size()];
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < executions.size(); i++) {
+                UtPLSQLMojo execution = executions.get(i);
+                int index = i;
+                runs.add(executor.submit(() -> {
+                    // The console output of a target is printed at once, when the target is done.
+                    ByteArrayOutputStream buffer = threads > 1 ? new ByteArrayOutputStream() : null;
+                    if (buffer != null) {
+                        execution.console = newConsole(buffer);
+                    }
+                    long start = System.currentTimeMillis();
+                    try {
+                        execution.executeRun();
+                    } catch (MojoExecutionException | RuntimeException e) {
+                        getLog().error(format("Target %s failed: %s", execution.targetName, e.getMessage()));
+                        failures[index] = String.valueOf(e.getMessage());
+                    } finally {
+                        if (buffer != null) {
+                            execution.console.flush();
+                            printConsole(execution.targetName, buffer);
+                        }
+                    }
+                    durations[index] = System.currentTimeMillis() - start;
+                }));
+            }
+            for (int i = 0; i < executions.size(); i++) {
+                runs.get(i).get();
+                summary.add(executions.get(i).targetName, durations[i], failures[i]);
+            }
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Unexpected error running the targets", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while running the targets", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        getLog().info("Targets summary:");
+        summary.getLines().forEach(line -> getLog().info("  " + line));
+        try {
+            summary.writeJson(new File(targetDir, PluginDefault.TARGETS_SUMMARY_FILE));
+        } catch (IOException e) {
+            getLog().warn("Unable to write the targets summary: " + e.getMessage());
+        }
+
+        if (summary.getFailureCount() > 0) {
+            throw new MojoExecutionException(
+                    format("%d of %d targets failed", summary.getFailureCount(), executions.size()));
+        }
+    }
+
+    /**
+     * Closes the pools and forgets the framework versions left by a previous
+     * build run in the same JVM, then counts this execution as running.
+     */
+    void startBuild() {
+        if (mavenSession == null) {
+            return;
+        }
+        synchronized (UtPLSQLMojo.class) {
+            DataSourceHelper.startBuild(mavenSession.getStartTime());
+            FrameworkVersionCache.startBuild(mavenSession.getStartTime());
+            if (!mavenSession.getStartTime().equals(runningBuild)) {
+                runningBuild = mavenSession.getStartTime();
+                runningExecutions = 0;
+            }
+            runningExecutions++;
+        }
+    }
+
+    /**
+     * Releases the pools and the framework versions once no execution is
+     * running anymore and no other module of the build is left to run, so
+     * modules built in parallel keep sharing them.
+     */
+    void endBuild() {
+        if (mavenSession == null) {
+            return;
+        }
+        synchronized (UtPLSQLMojo.class) {
+            if (--runningExecutions == 0 && isLastProject()) {
+                DataSourceHelper.closePools();
+                FrameworkVersionCache.clear();
+            }
+        }
+    }
+
+    private boolean isLastProject() {
+        List<MavenProject> projects = mavenSession.getProjects();
+        if (projects == null || mavenSession.getResult() == null) {
+            return true;
+        }
+        for (MavenProject other : projects) {
+            if (!other.equals(project) && mavenSession.getResult().getBuildSummary(other) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private UtPLSQLMojo copyFor(TargetParameter target, int index) {
+        UtPLSQLMojo copy;
+        try {
+            copy = (UtPLSQLMojo) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+
+        String name = StringUtils.isNotBlank(target.getName()) ? target.getName()
+                : StringUtils.defaultIfBlank(target.getDbUser(), "target-" + (index + 1));
+        copy.targetName = name;
+        copy.targets = Collections.emptyList();
+        copy.url = StringUtils.defaultIfBlank(target.getDbUrl(), url);
+        copy.user = StringUtils.defaultIfBlank(target.getDbUser(), user);
+        copy.password = StringUtils.defaultIfBlank(target.getDbPass(), password);
+        if (target.getPaths() != null && !target.getPaths().isEmpty()) {
+            copy.paths = target.getPaths();
+        }
+        copy.reporters = new ArrayList<>(reporters);
+        // The copies scan the resources at the same time, each one on its own resources.
+        copy.sources = copyResources(sources);
+        copy.tests = copyResources(tests);
+        // Reports and build state of each target are kept apart.
+        copy.targetDir = new File(new File(targetDir, PluginDefault.TARGETS_DIRECTORY),
+                name.replaceAll("[^\\w.-]", "_")).getPath();
+        return copy;
+    }
+
+    private static List<Resource> copyResources(List<Resource> resources) {
+        List<Resource> copies = new ArrayList<>();
+        for (Resource resource : resources) {
+            copies.add(resource.clone());
+        }
+        return copies;
+    }
+
+    private static PrintStream newConsole(ByteArrayOutputStream buffer) {
+        try {
+            return new PrintStream(buffer, true, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void printConsole(String targetName, ByteArrayOutputStream buffer) {
+        synchronized (System.out) {
+            System.out.println(format("----- Target %s -----", targetName));
+            System.out.print(new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+            System.out.flush();
+        }
+    }
+
+    /**
+     * Deploys the sources, then the tests, on deployThreads sessions in the order
+     * of their dependencies.
+     */
+    private void deploySources(DataSource ds, FileMapperOptions sourceMappingOptions,
+            FileMapperOptions testMappingOptions, String currentSchema) throws SQLException, MojoExecutionException {
+        DeploymentPlan plan = new DeploymentPlan();
+        try {
+            for (FileMapperOptions options : Arrays.asList(sourceMappingOptions, testMappingOptions)) {
+                for (String filePath : options.getFilePaths()) {
+                    plan.add(filePath, ObjectMappingHelper.toDatabaseObject(filePath, options, currentSchema),
+                            new String(Files.readAllBytes(new File(project.getBasedir(), filePath).toPath()),
+                                    StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read the scripts to deploy: " + e.getMessage(), e);
+        }
+        getLog().info(format("Deploying %d scripts on %d sessions", plan.getFiles().size(),
+                Math.max(1, Math.min(deployThreads, plan.getFiles().size()))));
+        executionMetrics.add("deployedFiles", plan.getFiles().size());
+
+        List<String> errors = new ParallelDeployer(ds, project.getBasedir(), deployThreads).deploy(plan);
+        if (!errors.isEmpty()) {
+            errors.forEach(getLog()::error);
+            throw new MojoExecutionException(format("Deployment failed with %d errors", errors.size()));
+        }
+    }
+
+    private void runTests(DataSource ds, Connection connection, Version utlVersion,
+            FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions)
+            throws SQLException, MojoExecutionException {
+        if (parallelism > 1) {
+            runParallel(ds, connection, utlVersion, sourceMappingOptions, testMappingOptions);
+        } else {
+            runSerial(ds, connection, utlVersion, sourceMappingOptions, testMappingOptions);
+        }
+    }
+
+    private void runSerial(DataSource ds, Connection connection, Version utlVersion,
+            FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions) throws SQLException {
+        ExecutionMetrics.Timer timer = executionMetrics.start("reporterInit");
+        List<Reporter> reporterList = initReporters(connection, utlVersion, ReporterFactory.createEmpty());
+        if (reporterWriter.hasEventOutputs()) {
+            reporterWriter.setTestFiles(ObjectMappingHelper.toFileMap(testMappingOptions,
+                    databaseInformation.getCurrentSchema(connection)));
+        }
+        timer.stop();
+
+        logParameters(sourceMappingOptions, testMappingOptions, reporterList);
+
+        TestRunner runner = buildTestRunner(sourceMappingOptions, testMappingOptions)
+                .addPathList(runPaths)
+                .addReporterList(reporterList);
+
+        if (isStreaming()) {
+            reporterWriter.startReporterGatherers(ds);
+        }
+
+        timer = executionMetrics.start("run");
+        if (failFastListener != null) {
+            failFastListener.watch(connection);
+        }
+        try {
+            runner.run(connection);
+        } finally {
+            timer.stop();
+            if (failFastListener != null) {
+                failFastListener.unwatch(connection);
+            }
         }
     }
 
-    private void loadConfFromEnvironment() {
+    private void saveMetrics() {
+        getLog().info("Execution phases: " + executionMetrics.summary());
+        if (!writeMetrics) {
+            return;
+        }
+        try {
+            executionMetrics.writeJson(new File(targetDir, PluginDefault.METRICS_FILE));
+            if (StringUtils.isNotBlank(metricsPrometheusFile)) {
+                File file = new File(metricsPrometheusFile);
+                executionMetrics.writePrometheus(file.isAbsolute() ? file : new File(targetDir, metricsPrometheusFile));
+            }
+        } catch (IOException e) {
+            getLog().warn("Unable to write the execution metrics: " + e.getMessage());
+        }
+    }
+
+    private void writeReporters(DataSource ds, Connection connection, boolean runCompleted)
+            throws MojoExecutionException {
+        if (isStreaming()) {
+            reporterWriter.finishReporterGatherers(!runCompleted);
+        } else if (reporterThreads > 1) {
+            reporterWriter.writeReporters(ds, reporterThreads);
+        } else {
+            reporterWriter.writeReporters(connection);
+        }
+    }
+
+    // Failing tests are only seen while the tests run if the reporters are gathered live.
+    private boolean isStreaming() {
+        return streamReporters || failFastListener != null;
+    }
+
+    private void runParallel(DataSource ds, Connection connection, Version utlVersion,
+            FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions)
+            throws SQLException, MojoExecutionException {
+        List<String> units = ParallelRunner.expandPaths(connection,
+                runPaths.isEmpty() ? Collections.singletonList(databaseInformation.getCurrentSchema(connection))
+                        : runPaths);
+        getLog().info(format("Running %d test units on %d sessions", units.size(), parallelism));
+
+        ParallelRunner parallelRunner = new ParallelRunner(ds,
+                () -> buildTestRunner(sourceMappingOptions, testMappingOptions), ReporterFactory.createEmpty(),
+                buildReporterParameters(), targetDir, utlVersion, parallelism);
+        parallelRunner.setFetchSize(reporterFetchSize);
+        parallelRunner.setBaseDirectory(project.getBasedir());
+        parallelRunner.setCoverageDataFile(getCoverageDataFile());
+        if (buildReporterParameters().stream().anyMatch(r -> LocalReporters.isLocal(r.getName()))) {
+            parallelRunner.setTestFiles(ObjectMappingHelper.toFileMap(testMappingOptions,
+                    databaseInformation.getCurrentSchema(connection)));
+        }
+        parallelRunner.setMetrics(executionMetrics);
+        parallelRunner.setConsole(console);
+        parallelRunner.setFailFast(failFastListener);
+        if (failedTests != null) {
+            parallelRunner.addEventListener(failedTests);
+        }
+
+        DurationHistory durationHistory = loadDurationHistory();
+        parallelRunner.setDurationHistory(durationHistory);
+        ExecutionMetrics.Timer timer = executionMetrics.start("run");
+        try {
+            parallelRunner.run(units);
+        } finally {
+            timer.stop();
+            if (durationHistory != null) {
+                durationHistory.record(parallelRunner.getDurations());
+                try {
+                    durationHistory.save();
+                } catch (IOException e) {
+                    getLog().warn("Unable to save the test run time history: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Session openSession(boolean probeVersion) throws SQLException {
+        Session session = new Session();
+        ExecutionMetrics.Timer timer = executionMetrics.start("connect");
+        session.dataSource = DataSourceHelper.getDataSource(url, user, password, buildConnectionProperties(),
+                poolConnections);
+        session.connection = session.dataSource.getConnection();
+        timer.stop();
+
+        try {
+            if (writeMetrics) {
+                session.startRoundTrips = SessionStatistics.getStatistic(session.connection,
+                        SessionStatistics.ROUND_TRIPS);
+            }
+            if (probeVersion) {
+                timer = executionMetrics.start("version");
+                session.version = getFrameworkVersion(session.connection);
+                timer.stop();
+            }
+        } catch (SQLException | RuntimeException e) {
+            session.connection.close();
+            throw e;
+        }
+        return session;
+    }
+
+    private Session awaitSession(Future<Session> sessionFuture) throws SQLException, MojoExecutionException {
+        try {
+            return sessionFuture.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new MojoExecutionException("Unexpected error opening the database session", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while opening the database session", e);
+        }
+    }
+
+    // The scan failed: the session opened meanwhile is closed.
+    private void discardSession(Future<Session> sessionFuture) {
+        try {
+            sessionFuture.get().connection.close();
+        } catch (Exception e) {
+            getLog().debug("Failed to open or close the database session", e);
+        }
+    }
+
+    private Version getFrameworkVersion(Connection connection) throws SQLException {
+        Version utlVersion = FrameworkVersionCache.getFrameworkVersion(connection, databaseInformation, url, user);
+        frameworkCompatible = FrameworkVersionCache.isCompatible(utlVersion, JavaApiVersionInfo.getVersion());
+        if (frameworkCompatible) {
+            getLog().debug("utPLSQL Version " + utlVersion + " is compatible, skipping the runner compatibility check");
+        }
+        return utlVersion;
+    }
+
+    private DurationHistory loadDurationHistory() {
+        try {
+            return new DurationHistory(new File(targetDir, PluginDefault.DURATION_HISTORY_FILE));
+        } catch (IOException e) {
+            getLog().warn("Unable to read the test run time history: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private TestRunner buildTestRunner(FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions) {
+        TestRunner runner = new TestRunner()
+                .sourceMappingOptions(sourceMappingOptions)
+                .testMappingOptions(testMappingOptions)
+                .skipCompatibilityCheck(skipCompatibilityCheck || frameworkCompatible)
+                .colorConsole(colorConsole)
+                .addTags(tags)
+                .randomTestOrder(randomTestOrder)
+                .randomTestOrderSeed(randomTestOrderSeed)
+                // Failures are ignored by the caller, so a failed run is never taken for a successful one.
+                .failOnErrors(true);
+
+        if (StringUtils.isNotBlank(excludeObject)) {
+            runner.excludeObject(excludeObject);
+        }
+        runIncludeObjects.forEach(runner::includeObject);
+        return runner;
+    }
+
+    private UpToDateCheck loadUpToDateCheck() throws MojoExecutionException {
+        try {
+            return new UpToDateCheck(new File(targetDir, PluginDefault.UP_TO_DATE_DIRECTORY));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read the up-to-date state: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Restores the reports of the last successful run if its fingerprint matches.
+     *
+     * @return true if the run is up to date
+     */
+    private boolean restoreUpToDateReports(UpToDateCheck upToDate, String fingerprint)
+            throws MojoExecutionException {
+        List<File> reportFiles = getReportFiles();
+        if (!upToDate.isUpToDate(fingerprint, reportFiles)) {
+            return false;
+        }
+        try {
+            upToDate.restoreReports(reportFiles);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to restore the cached reports: " + e.getMessage(), e);
+        }
+        getLog().info("Nothing changed since the last successful run, tests are up to date");
+        return true;
+    }
+
+    /**
+     * Fingerprints the files, the configuration and the state of the schemas
+     * involved in the run.
+     */
+    private String buildFingerprint(Connection connection, FileMapperOptions sourceMappingOptions,
+            FileMapperOptions testMappingOptions) throws SQLException, MojoExecutionException {
+        Fingerprint fingerprint = new Fingerprint()
+                .add("url", url)
+                .add("user", user)
+                .add("paths", paths)
+                .add("includeObject", includeObject)
+                .add("excludeObject", excludeObject)
+                .add("tags", tags)
+                .add("randomTestOrder", randomTestOrder)
+                .add("randomTestOrderSeed", randomTestOrderSeed)
+                .add("ignoreFailure", ignoreFailure)
+                .add("skipCompatibilityCheck", skipCompatibilityCheck)
+                .add("coverageOnly", coverageOnly)
+                .add("parallelism", parallelism)
+                .add("failFast", failFast ? failFastThreshold : 0)
+                .add("deploy", deploy);
+        for (ReporterParameter reporterParameter : buildReporterParameters()) {
+            fingerprint.add("reporter", reporterParameter.getName() + "|" + reporterParameter.getFileOutput() + "|"
+                    + reporterParameter.isConsoleOutput() + "|" + reporterParameter.getCompression());
+        }
+
+        String currentSchema = databaseInformation.getCurrentSchema(connection);
+        Set<String> owners = new TreeSet<>();
+        owners.add(currentSchema.toUpperCase(Locale.ROOT));
+        for (String path : paths) {
+            owners.add(StringUtils.substringBefore(StringUtils.substringBefore(path, ":"), ".")
+                    .toUpperCase(Locale.ROOT));
+        }
+
+        try {
+            for (FileMapperOptions options : Arrays.asList(sourceMappingOptions, testMappingOptions)) {
+                fingerprint.add("owner", options.getObjectOwner())
+                        .add("regex", options.getRegexPattern())
+                        .add("subexpressions", options.getOwnerSubExpression() + "|" + options.getNameSubExpression()
+                                + "|" + options.getTypeSubExpression());
+                if (options.getTypeMappings() != null) {
+                    for (KeyValuePair mapping : options.getTypeMappings()) {
+                        fingerprint.add("typeMapping", mapping.getKey() + "|" + mapping.getValue());
+                    }
+                }
+                for (String filePath : options.getFilePaths()) {
+                    fingerprint.addFile(filePath, new File(project.getBasedir(), filePath));
+                    DatabaseObject object = ObjectMappingHelper.toDatabaseObject(filePath, options, currentSchema);
+                    if (object != null && object.getOwner() != null) {
+                        owners.add(object.getOwner());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to fingerprint the project files: " + e.getMessage(), e);
+        }
+
+        fingerprint.add("schemas", UpToDateCheck.getSchemaState(connection, owners));
+        return fingerprint.toString();
+    }
+
+    private List<File> getReportFiles() {
+        List<File> reportFiles = new ArrayList<>();
+        for (ReporterParameter reporterParameter : buildReporterParameters()) {
+            if (reporterParameter.isFileOutput()) {
+                File file = new File(reporterParameter.getFileOutput());
+                if (!file.isAbsolute()) {
+                    file = new File(targetDir, reporterParameter.getFileOutput());
+                }
+                reportFiles.add(Compression.of(reporterParameter.getCompression()).apply(file));
+            }
+        }
+        return reportFiles;
+    }
+
+    private ChangeTracker loadChangeTracker() throws MojoExecutionException {
+        try {
+            return new ChangeTracker(new File(targetDir, PluginDefault.FILE_HASHES_FILE), project.getBasedir());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read the file hashes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the tests failed on the last runs, when they are recorded or rerun.
+     *
+     * @return the failed tests, or null if they are neither recorded nor rerun
+     */
+    private FailedTests loadFailedTests() throws MojoExecutionException {
+        if (!recordFailedTests && !rerunFailed) {
+            return null;
+        }
+        try {
+            return new FailedTests(new File(targetDir, PluginDefault.FAILED_TESTS_FILE));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read the failed tests: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean selectFailedTests(FailedTests previousFailures) {
+        List<String> failedPaths = previousFailures.getPaths();
+        if (failedPaths.isEmpty()) {
+            getLog().info("No failed test recorded, running all the tests");
+            return false;
+        }
+        getLog().info(format("Running the %d tests failed on the last runs", failedPaths.size()));
+        failedPaths.forEach(getLog()::debug);
+        runPaths = failedPaths;
+        return true;
+    }
+
+    private void saveFailedTests() {
+        if (failedTests == null) {
+            return;
+        }
+        // Tests not run by a narrowed or stopped run keep their last state.
+        boolean wholeSuite = runPaths == paths && (failFastListener == null || !failFastListener.isStopped());
+        try {
+            failedTests.save(wholeSuite);
+        } catch (IOException e) {
+            getLog().warn("Unable to save the failed tests: " + e.getMessage());
+        }
+    }
+
+    // The failed tests are recorded from the realtime reporter, added in utPLSQL 3.1.4.
+    private static boolean supportsRealtimeReporter(Version version) {
+        try {
+            return version.isGreaterOrEqualThan(Version.create("3.1.4"));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Narrows the run to the test packages affected by the files changed since the
+     * last successful run.
+     *
+     * @return false if no test needs to run
+     */
+    private boolean selectAffectedTests(Connection connection, ChangeTracker changeTracker,
+            FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions)
+            throws SQLException, MojoExecutionException {
+        Set<String> changes;
+        try {
+            changes = changeTracker.findChanges(sourceMappingOptions.getFilePaths(),
+                    testMappingOptions.getFilePaths());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to hash the project files: " + e.getMessage(), e);
+        }
+
+        if (!changeTracker.hasHistory()) {
+            getLog().info("No previous successful run, running all the tests");
+            return true;
+        }
+        if (changes.isEmpty()) {
+            getLog().info("No file changed since the last successful run, skipping the tests");
+            return false;
+        }
+
+        TestSelector selector = new TestSelector(sourceMappingOptions, testMappingOptions,
+                databaseInformation.getCurrentSchema(connection));
+        selector.select(connection, changes, changeTracker.getRemovedTests());
+
+        List<String> selectedPaths = narrowToPaths(selector.getTestPaths());
+
+        if (selectedPaths.isEmpty()) {
+            getLog().info(format("No test affected by the %d changed files, skipping the tests", changes.size()));
+            return false;
+        }
+
+        getLog().info(format("%d changed files, running %d affected test packages", changes.size(),
+                selectedPaths.size()));
+        runPaths = selectedPaths;
+        if (runIncludeObjects.isEmpty()) {
+            runIncludeObjects = new ArrayList<>();
+            selector.getChangedSources().forEach(source -> runIncludeObjects.add(source.toString()));
+        }
+        return true;
+    }
+
+    // Keeps the test packages run by the configured paths.
+    List<String> narrowToPaths(List<String> testPaths) {
+        List<String> selectedPaths = new ArrayList<>();
+        for (String testPath : testPaths) {
+            if (paths.isEmpty() || paths.stream().anyMatch(path -> path.equalsIgnoreCase(testPath)
+                    || path.equalsIgnoreCase(StringUtils.substringBefore(testPath, ".")))) {
+                selectedPaths.add(testPath);
+            }
+        }
+        return selectedPaths;
+    }
+
+    /**
+     * Opens the database session of the watch goal, kept open between the runs.
+     */
+    Session openWatchSession() throws SQLException {
+        executionMetrics = new ExecutionMetrics();
+        return openSession(true);
+    }
+
+    /**
+     * Runs the given test packages on the session of the watch goal, the
+     * reporters being written once the tests have run.
+     */
+    void runOnSession(Session session, FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions,
+            List<String> testPaths, List<String> includeObjects) throws SQLException, MojoExecutionException {
+        executionMetrics = new ExecutionMetrics();
+        failFastListener = failFast ? new FailFastListener(failFastThreshold) : null;
+        runPaths = testPaths;
+        runIncludeObjects = StringUtils.isNotBlank(includeObject) ? Collections.singletonList(includeObject)
+                : includeObjects;
+
+        boolean runCompleted = false;
+        try {
+            runTests(session.dataSource, session.connection, session.version, sourceMappingOptions,
+                    testMappingOptions);
+            runCompleted = true;
+        } catch (SomeTestsFailedException e) {
+            runCompleted = true;
+            throw e;
+        } finally {
+            if (reporterWriter != null) {
+                writeReporters(session.dataSource, session.connection, runCompleted);
+                reporterWriter = null;
+            }
+        }
+    }
+
+    // Owner of the objects the mapping options do not map to an owner.
+    String getCurrentSchema(Connection connection) throws SQLException {
+        return databaseInformation.getCurrentSchema(connection);
+    }
+
+    void loadConfFromEnvironment() {
         if (StringUtils.isEmpty(url)) {
             url = System.getProperty("dbUrl");
         }
@@ -216,7 +1177,17 @@ public class UtPLSQLMojo extends AbstractMojo {
         }
     }
 
-    private FileMapperOptions buildSourcesOptions() throws MojoExecutionException {
+    private Properties buildConnectionProperties() {
+        Properties properties = new Properties();
+        properties.putAll(connectionProperties);
+        if (reporterLobPrefetchSize != null) {
+            properties.setProperty(OracleConnection.CONNECTION_PROPERTY_DEFAULT_LOB_PREFETCH_SIZE,
+                    String.valueOf(reporterLobPrefetchSize));
+        }
+        return properties;
+    }
+
+    FileMapperOptions buildSourcesOptions() throws MojoExecutionException {
         try {
             if (sources.isEmpty()) {
                 File defaultSourceDirectory = new File(project.getBasedir(), PluginDefault.SOURCE_DIRECTORY);
@@ -228,7 +1199,7 @@ public class UtPLSQLMojo extends AbstractMojo {
             }
 
             List<String> scripts = SQLScannerHelper.findSQLs(project.getBasedir(), sources,
-                    PluginDefault.SOURCE_DIRECTORY, PluginDefault.SOURCE_FILE_PATTERN);
+                    PluginDefault.SOURCE_DIRECTORY, PluginDefault.SOURCE_FILE_PATTERN, getScanCacheDirectory());
             FileMapperOptions fileMapperOptions = new FileMapperOptions(scripts);
 
             if (StringUtils.isNotEmpty(sourcesOwner)) {
@@ -267,7 +1238,7 @@ public class UtPLSQLMojo extends AbstractMojo {
 
     }
 
-    private FileMapperOptions buildTestsOptions() throws MojoExecutionException {
+    FileMapperOptions buildTestsOptions() throws MojoExecutionException {
         try {
             if (tests.isEmpty()) {
                 File defaultTestDirectory = new File(project.getBasedir(), PluginDefault.TEST_DIRECTORY);
@@ -279,7 +1250,7 @@ public class UtPLSQLMojo extends AbstractMojo {
             }
 
             List<String> scripts = SQLScannerHelper.findSQLs(project.getBasedir(), tests, PluginDefault.TEST_DIRECTORY,
-                    PluginDefault.TEST_FILE_PATTERN);
+                    PluginDefault.TEST_FILE_PATTERN, getScanCacheDirectory());
             FileMapperOptions fileMapperOptions = new FileMapperOptions(scripts);
 
             if (StringUtils.isNotEmpty(testsOwner)) {
@@ -318,11 +1289,14 @@ public class UtPLSQLMojo extends AbstractMojo {
 
     }
 
-    private List<Reporter> initReporters(Connection connection, Version utlVersion, ReporterFactory reporterFactory)
-            throws SQLException {
+    private File getScanCacheDirectory() {
+        return scanCache && targetDir != null ? new File(targetDir, PluginDefault.SCAN_CACHE_DIRECTORY) : null;
+    }
 
-        List<Reporter> reporterList = new ArrayList<>();
-        reporterWriter = new ReporterWriter(targetDir, utlVersion);
+    private List<ReporterParameter> buildReporterParameters() {
+        if (coverageOnly) {
+            return buildCoverageReporterParameters();
+        }
 
         if (reporters.isEmpty()) {
             ReporterParameter reporterParameter = new ReporterParameter();
@@ -332,15 +1306,108 @@ public class UtPLSQLMojo extends AbstractMojo {
         }
 
         for (ReporterParameter reporterParameter : reporters) {
-            Reporter reporter = reporterFactory.createReporter(reporterParameter.getName());
-            reporter.init(connection);
-            reporterList.add(reporter);
-
             // Turns the console output on by default if both file and console output are
             // empty.
             if (!reporterParameter.isFileOutput() && null == reporterParameter.getConsoleOutput()) {
                 reporterParameter.setConsoleOutput(true);
             }
+        }
+
+        return reporters;
+    }
+
+    /**
+     * Builds the reporter parameters and checks them before connecting, so a
+     * misconfigured reporter does not fail the build once the tests have run.
+     */
+    void checkReporterParameters() throws MojoExecutionException {
+        for (ReporterParameter reporterParameter : buildReporterParameters()) {
+            try {
+                Compression.of(reporterParameter.getCompression());
+            } catch (IllegalArgumentException e) {
+                throw new MojoExecutionException(
+                        format("Invalid <compression> of reporter %s: %s", reporterParameter.getName(), e.getMessage()),
+                        e);
+            }
+        }
+    }
+
+    private List<ReporterParameter> buildCoverageReporterParameters() {
+        List<ReporterParameter> coverageReporters = new ArrayList<>();
+        for (ReporterParameter reporterParameter : reporters) {
+            if (CoverageFormat.of(reporterParameter.getName()) != null) {
+                coverageReporters.add(reporterParameter);
+            } else {
+                getLog().debug("Reporter " + reporterParameter.getName() + " skipped in coverage only mode");
+            }
+        }
+
+        if (coverageReporters.isEmpty()) {
+            ReporterParameter reporterParameter = new ReporterParameter();
+            reporterParameter.setName(CoreReporters.UT_COVERAGE_SONAR_REPORTER.name());
+            reporterParameter.setFileOutput(ReporterDefault.UT_COVERAGE_SONAR_REPORTER.getOutputFile());
+            reporterParameter.setConsoleOutput(false);
+            coverageReporters.add(reporterParameter);
+        }
+
+        for (ReporterParameter reporterParameter : coverageReporters) {
+            if (!reporterParameter.isFileOutput() && null == reporterParameter.getConsoleOutput()) {
+                reporterParameter.setConsoleOutput(true);
+            }
+        }
+
+        return coverageReporters;
+    }
+
+    private List<Reporter> initReporters(Connection connection, Version utlVersion, ReporterFactory reporterFactory)
+            throws SQLException {
+
+        List<Reporter> reporterList = new ArrayList<>();
+        reporterWriter = new ReporterWriter(targetDir, utlVersion);
+        reporterWriter.setFetchSize(reporterFetchSize);
+        reporterWriter.setMetrics(executionMetrics);
+        reporterWriter.setConsole(console);
+        reporterWriter.setCoverageDataFile(getCoverageDataFile());
+        reporterWriter.setFailFast(failFastListener);
+        if (failedTests != null) {
+            reporterWriter.addEventListener(failedTests);
+        }
+
+        if (coverageOnly) {
+            // Rendered on the Java side from the coverage data of a single coveralls reporter.
+            buildReporterParameters().forEach(reporterWriter::addCoverageOutput);
+            reporterWriter.setBaseDirectory(project.getBasedir());
+            reporterList.add(reporterWriter.initCoverageReporter(new ReporterBatch(reporterFactory, connection)));
+            return reporterList;
+        }
+
+        List<ReporterParameter> databaseReporters = new ArrayList<>();
+        for (ReporterParameter reporterParameter : buildReporterParameters()) {
+            // Rendered on the Java side from the events of a single realtime reporter.
+            if (LocalReporters.isLocal(reporterParameter.getName())) {
+                if (reporterParameter.isFileOutput() || reporterParameter.isConsoleOutput()) {
+                    reporterWriter.addEventOutput(reporterParameter);
+                }
+            } else {
+                databaseReporters.add(reporterParameter);
+            }
+        }
+
+        // All the reporters are created in the database in a single call.
+        List<String> typeNames = new ArrayList<>();
+        databaseReporters.forEach(reporterParameter -> typeNames.add(reporterParameter.getName()));
+        if (reporterWriter.needsEventReporter()) {
+            typeNames.add(CoreReporters.UT_REALTIME_REPORTER.name());
+        }
+        if (reporterWriter.needsCoverageReporter()) {
+            typeNames.add(CoreReporters.UT_COVERALLS_REPORTER.name());
+        }
+        ReporterBatch reporterBatch = new ReporterBatch(reporterFactory, connection);
+        reporterBatch.createAll(typeNames);
+
+        for (ReporterParameter reporterParameter : databaseReporters) {
+            Reporter reporter = reporterBatch.create(reporterParameter.getName());
+            reporterList.add(reporter);
 
             // Only added the reporter if at least one of the output is required
             if (StringUtils.isNotBlank(reporterParameter.getFileOutput()) || reporterParameter.isConsoleOutput()) {
@@ -348,9 +1415,29 @@ public class UtPLSQLMojo extends AbstractMojo {
             }
         }
 
+        Reporter eventReporter = reporterWriter.initEventReporter(reporterBatch);
+        if (eventReporter != null) {
+            reporterList.add(eventReporter);
+        }
+
+        // Gathers the coverage data to be merged with other executions.
+        Reporter coverageReporter = reporterWriter.initCoverageReporter(reporterBatch);
+        if (coverageReporter != null) {
+            reporterList.add(coverageReporter);
+        }
+
         return reporterList;
     }
 
+    private File getCoverageDataFile() {
+        if (!saveCoverageData || targetDir == null) {
+            return null;
+        }
+        String executionId = mojoExecution != null ? mojoExecution.getExecutionId() : "default";
+        return new File(new File(targetDir, PluginDefault.COVERAGE_DATA_DIRECTORY),
+                executionId + PluginDefault.COVERAGE_DATA_EXTENSION);
+    }
+
     private void logParameters(FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions,
             List<Reporter> reporterList) {
         Log log = getLog();
@@ -368,4 +1455,19 @@ public class UtPLSQLMojo extends AbstractMojo {
         log.debug("tests=");
         testMappingOptions.getFilePaths().forEach(log::debug);
     }
-}
\ No newline at end of file
+
+    /**
+     * Database session opened while the resources are scanned.
+     */
+    static class Session {
+
+        DataSource dataSource;
+
+        Connection connection;
+
+        Long startRoundTrips;
+
+        // Null until probed, an up-to-date run needing none.
+        Version version;
+    }
+}
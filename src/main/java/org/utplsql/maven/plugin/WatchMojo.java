@@ -0,0 +1,198 @@
+package org.utplsql.maven.plugin;
+
+import static java.lang.String.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.api.exception.SomeTestsFailedException;
+import org.utplsql.maven.plugin.deploy.ScriptDeployer;
+import org.utplsql.maven.plugin.helper.FrameworkVersionCache;
+import org.utplsql.maven.plugin.helper.ObjectMappingHelper;
+import org.utplsql.maven.plugin.incremental.FileWatcher;
+import org.utplsql.maven.plugin.incremental.TestSelector;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Runs the tests again each time a source or test file changes, with the
+ * configuration of the {@code test} goal.
+ *
+ * The database session is opened and the framework version probed once, then
+ * kept for all the runs. The changed files are deployed to the database and the
+ * test packages they affect are run, selected from the database dependencies as
+ * in incremental mode. The goal runs until the build is interrupted.
+ */
+@Mojo(name = "watch", requiresDirectInvocation = true)
+public class WatchMojo extends UtPLSQLMojo {
+
+    @Parameter(property = "utplsql.watchQuietPeriod", defaultValue = "100")
+    protected int watchQuietPeriod;
+
+    @Parameter(property = "utplsql.deployChanges", defaultValue = "true")
+    protected boolean deployChanges;
+
+    private final ScriptDeployer scriptDeployer = new ScriptDeployer();
+
+    /**
+     * Executes the plugin.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        loadConfFromEnvironment();
+        checkReporterParameters();
+        startBuild();
+        buildSourcesOptions();
+        buildTestsOptions();
+
+        Session session = null;
+        try (FileWatcher watcher = new FileWatcher(project.getBasedir(), getWatchedDirectories())) {
+            session = openWatchSession();
+            getLog().info("utPLSQL Version = " + session.version);
+            getLog().info("Watching the project files for changes, press Ctrl+C to stop");
+
+            while (true) {
+                Set<String> changes = watcher.awaitChanges(watchQuietPeriod);
+                long start = System.currentTimeMillis();
+                FileMapperOptions sourceMappingOptions = buildSourcesOptions();
+                FileMapperOptions testMappingOptions = buildTestsOptions();
+                changes.retainAll(getFilePaths(sourceMappingOptions, testMappingOptions));
+                if (changes.isEmpty()) {
+                    continue;
+                }
+
+                if (!session.connection.isValid(5)) {
+                    getLog().warn("The database session was lost, opening a new one");
+                    closeSession(session);
+                    // The framework may have been reinstalled meanwhile.
+                    FrameworkVersionCache.clear();
+                    session = openWatchSession();
+                }
+                runChanges(session, changes, sourceMappingOptions, testMappingOptions);
+                getLog().info(format("Done in %d ms, watching the project files for changes",
+                        System.currentTimeMillis() - start));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to watch the project files: " + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSession(session);
+            endBuild();
+        }
+    }
+
+    private void runChanges(Session session, Set<String> changes, FileMapperOptions sourceMappingOptions,
+            FileMapperOptions testMappingOptions) throws SQLException {
+        String currentSchema = getCurrentSchema(session.connection);
+        Set<String> testFiles = new HashSet<>(testMappingOptions.getFilePaths());
+
+        if (deployChanges && !deploy(session, changes, testFiles, sourceMappingOptions, testMappingOptions,
+                currentSchema)) {
+            getLog().error("Compilation errors, the tests are not run");
+            return;
+        }
+
+        TestSelector selector = new TestSelector(sourceMappingOptions, testMappingOptions, currentSchema);
+        selector.select(session.connection, changes);
+        List<String> testPaths = narrowToPaths(selector.getTestPaths());
+        if (testPaths.isEmpty()) {
+            getLog().info(format("No test affected by the %d changed files", changes.size()));
+            return;
+        }
+        getLog().info(format("%d changed files, running %d affected test packages", changes.size(),
+                testPaths.size()));
+
+        List<String> includeObjects = new ArrayList<>();
+        selector.getChangedSources().forEach(source -> includeObjects.add(source.toString()));
+        try {
+            runOnSession(session, sourceMappingOptions, testMappingOptions, testPaths, includeObjects);
+        } catch (SomeTestsFailedException e) {
+            getLog().warn(e.getMessage());
+        } catch (SQLException | MojoExecutionException e) {
+            getLog().error(e.getMessage());
+        }
+    }
+
+    /**
+     * Deploys the changed files, the sources before the tests and the
+     * specifications before the bodies.
+     *
+     * @return false if an object did not compile
+     */
+    private boolean deploy(Session session, Set<String> changes, Set<String> testFiles,
+            FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions, String currentSchema) {
+        List<String> files = new ArrayList<>(changes);
+        files.sort(Comparator.comparing((String file) -> testFiles.contains(file)).thenComparing(
+                file -> isBody(ObjectMappingHelper.toDatabaseObject(file,
+                        testFiles.contains(file) ? testMappingOptions : sourceMappingOptions, currentSchema))));
+
+        boolean compiled = true;
+        for (String file : files) {
+            DatabaseObject object = ObjectMappingHelper.toDatabaseObject(file,
+                    testFiles.contains(file) ? testMappingOptions : sourceMappingOptions, currentSchema);
+            try {
+                List<String> errors = scriptDeployer.deploy(session.connection, new File(project.getBasedir(), file),
+                        object);
+                if (errors.isEmpty()) {
+                    getLog().info("Deployed " + file);
+                } else {
+                    compiled = false;
+                    getLog().error(format("%s compiled with errors:", file));
+                    errors.forEach(error -> getLog().error("  " + error));
+                }
+            } catch (IOException | SQLException e) {
+                compiled = false;
+                getLog().error(format("Unable to deploy %s: %s", file, e.getMessage()));
+            }
+        }
+        return compiled;
+    }
+
+    private static boolean isBody(DatabaseObject object) {
+        return object != null && object.getType() != null && object.getType().endsWith("BODY");
+    }
+
+    private List<File> getWatchedDirectories() {
+        List<File> directories = new ArrayList<>();
+        List<Resource> resources = new ArrayList<>(sources);
+        resources.addAll(tests);
+        for (Resource resource : resources) {
+            File directory = new File(project.getBasedir(), resource.getDirectory());
+            if (directory.isDirectory() && !directories.contains(directory)) {
+                directories.add(directory);
+            }
+        }
+        return directories;
+    }
+
+    private static Set<String> getFilePaths(FileMapperOptions sourceMappingOptions,
+            FileMapperOptions testMappingOptions) {
+        Set<String> filePaths = new HashSet<>(sourceMappingOptions.getFilePaths());
+        filePaths.addAll(testMappingOptions.getFilePaths());
+        return filePaths;
+    }
+
+    private void closeSession(Session session) {
+        if (session == null) {
+            return;
+        }
+        try {
+            session.connection.close();
+        } catch (SQLException e) {
+            getLog().debug("Failed to close the database session", e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.utplsql.maven.plugin.coverage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Line coverage of a run: for each covered file, the number of executions of
+ * each of its lines.
+ *
+ * Hits are indexed by line, line 1 being at index 0. Lines holding no code are
+ * {@link #NOT_RELEVANT}. Files are kept sorted by name, so the reports are
+ * written in a stable order.
+ *
+ * The coverage of a run can be saved to a data file, so the coverage of several
+ * executions or build shards is merged into a single report afterwards. The
+ * data file holds a line per file, the hits of its lines separated by commas,
+ * empty for lines holding no code, followed by a tab and the file name.
+ */
+public class CoverageData {
+
+    /**
+     * Hits of a line that holds no code.
+     */
+    public static final long NOT_RELEVANT = -1;
+
+    private static final String DATA_HEADER = "# utPLSQL coverage data";
+
+    private final TreeMap<String, long[]> files = new TreeMap<>();
+
+    /**
+     * Reads the coverage saved to a data file.
+     *
+     * @param file the data file
+     * @return the coverage data
+     * @throws IOException if the file cannot be read or is not a coverage data
+     *                     file
+     */
+    public static CoverageData read(File file) throws IOException {
+        CoverageData coverage = new CoverageData();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                if (tab < 0) {
+                    throw new IOException("Invalid coverage data at " + file + ":" + number);
+                }
+                String[] values = line.substring(0, tab).split(",", -1);
+                long[] hits = new long[values.length];
+                try {
+                    for (int i = 0; i < values.length; i++) {
+                        hits[i] = values[i].isEmpty() ? NOT_RELEVANT : Long.parseLong(values[i]);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid coverage data at " + file + ":" + number, e);
+                }
+                coverage.add(line.substring(tab + 1), hits);
+            }
+        }
+        return coverage;
+    }
+
+    /**
+     * Saves the coverage to a data file. The file is replaced at once, so a
+     * failed build never leaves a truncated data file.
+     *
+     * @param file the data file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        directory.mkdirs();
+        File temporary = new File(directory, file.getName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(DATA_HEADER);
+            writer.newLine();
+            StringBuilder line = new StringBuilder();
+            for (Map.Entry<String, long[]> entry : files.entrySet()) {
+                line.setLength(0);
+                long[] hits = entry.getValue();
+                for (int i = 0; i < hits.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    if (hits[i] != NOT_RELEVANT) {
+                        line.append(hits[i]);
+                    }
+                }
+                writer.append(line).append('\t').append(entry.getKey());
+                writer.newLine();
+            }
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Adds the hits of a file. Hits of a file already known are summed, a line
+     * being relevant if it is relevant in any of them.
+     *
+     * @param file the file name
+     * @param hits the hits of each line
+     */
+    public void add(String file, long[] hits) {
+        long[] known = files.get(file);
+        if (known == null) {
+            files.put(file, hits.clone());
+            return;
+        }
+
+        long[] merged = Arrays.copyOf(known, Math.max(known.length, hits.length));
+        Arrays.fill(merged, known.length, merged.length, NOT_RELEVANT);
+        for (int i = 0; i < hits.length; i++) {
+            if (hits[i] != NOT_RELEVANT) {
+                merged[i] = merged[i] == NOT_RELEVANT ? hits[i] : merged[i] + hits[i];
+            }
+        }
+        files.put(file, merged);
+    }
+
+    /**
+     * Adds all the files of another coverage.
+     *
+     * @param other the other coverage
+     */
+    public void addAll(CoverageData other) {
+        other.files.forEach(this::add);
+    }
+
+    /**
+     * Returns the covered files.
+     *
+     * @return the file names, sorted
+     */
+    public Set<String> getFiles() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    /**
+     * Returns the hits of a file.
+     *
+     * @param file the file name
+     * @return the hits of each line, null if the file is unknown
+     */
+    public long[] getHits(String file) {
+        return files.get(file);
+    }
+
+    /**
+     * Returns the number of lines holding code.
+     *
+     * @return the number of relevant lines of all files
+     */
+    public long getLinesValid() {
+        return files.values().stream().mapToLong(CoverageData::getLinesValid).sum();
+    }
+
+    /**
+     * Returns the number of lines executed at least once.
+     *
+     * @return the number of covered lines of all files
+     */
+    public long getLinesCovered() {
+        return files.values().stream().mapToLong(CoverageData::getLinesCovered).sum();
+    }
+
+    /**
+     * Returns the number of lines holding code in a file.
+     *
+     * @param hits the hits of the file
+     * @return the number of relevant lines
+     */
+    public static long getLinesValid(long[] hits) {
+        return Arrays.stream(hits).filter(hit -> hit != NOT_RELEVANT).count();
+    }
+
+    /**
+     * Returns the number of lines executed at least once in a file.
+     *
+     * @param hits the hits of the file
+     * @return the number of covered lines
+     */
+    public static long getLinesCovered(long[] hits) {
+        return Arrays.stream(hits).filter(hit -> hit > 0).count();
+    }
+
+    /**
+     * Returns the ratio of covered lines.
+     *
+     * @param covered the number of covered lines
+     * @param valid   the number of relevant lines
+     * @return the line rate, between 0 and 1
+     */
+    public static double getLineRate(long covered, long valid) {
+        return valid == 0 ? 1 : (double) covered / valid;
+    }
+}
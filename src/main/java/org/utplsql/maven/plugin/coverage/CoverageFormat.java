@@ -0,0 +1,308 @@
+package org.utplsql.maven.plugin.coverage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.utplsql.api.reporter.CoreReporters;
+
+/**
+ * Coverage reports rendered on the Java side from the coverage data.
+ *
+ * Each covered file is rendered on its own, in parallel, and the fragments are
+ * written in the order of the files, so the formatting work is done by the
+ * build rather than by the database.
+ */
+public enum CoverageFormat {
+
+    /**
+     * SonarQube generic coverage report, as {@code UT_COVERAGE_SONAR_REPORTER}.
+     */
+    SONAR(CoreReporters.UT_COVERAGE_SONAR_REPORTER) {
+        @Override
+        protected String header(CoverageData coverage) {
+            return "<?xml version=\"1.0\"?>\n<coverage version=\"1\">\n";
+        }
+
+        @Override
+        protected String renderFile(String file, long[] hits, File baseDirectory) {
+            StringBuilder xml = new StringBuilder();
+            xml.append("<file path=\"").append(escape(file)).append("\">\n");
+            for (int i = 0; i < hits.length; i++) {
+                if (hits[i] != CoverageData.NOT_RELEVANT) {
+                    xml.append("<lineToCover lineNumber=\"").append(i + 1).append("\" covered=\"")
+                            .append(hits[i] > 0).append("\"/>\n");
+                }
+            }
+            return xml.append("</file>\n").toString();
+        }
+
+        @Override
+        protected String footer(CoverageData coverage) {
+            return "</coverage>\n";
+        }
+    },
+
+    /**
+     * Cobertura report, as {@code UT_COVERAGE_COBERTURA_REPORTER}, one package
+     * per file.
+     */
+    COBERTURA(CoreReporters.UT_COVERAGE_COBERTURA_REPORTER) {
+        @Override
+        protected String header(CoverageData coverage) {
+            long valid = coverage.getLinesValid();
+            long covered = coverage.getLinesCovered();
+            return "<?xml version=\"1.0\"?>\n"
+                    + "<coverage line-rate=\"" + rate(covered, valid) + "\" branch-rate=\"0\" lines-covered=\""
+                    + covered + "\" lines-valid=\"" + valid + "\" branches-covered=\"0\" branches-valid=\"0\" "
+                    + "complexity=\"0\" version=\"1\" timestamp=\"" + System.currentTimeMillis() / 1000 + "\">\n"
+                    + "<sources>\n<source>./</source>\n</sources>\n<packages>\n";
+        }
+
+        @Override
+        protected String renderFile(String file, long[] hits, File baseDirectory) {
+            String rate = rate(CoverageData.getLinesCovered(hits), CoverageData.getLinesValid(hits));
+            String name = escape(file);
+            StringBuilder xml = new StringBuilder();
+            xml.append("<package name=\"").append(name).append("\" line-rate=\"").append(rate)
+                    .append("\" branch-rate=\"0\" complexity=\"0\">\n<classes>\n");
+            xml.append("<class name=\"").append(name).append("\" filename=\"").append(name)
+                    .append("\" line-rate=\"").append(rate)
+                    .append("\" branch-rate=\"0\" complexity=\"0\">\n<methods/>\n<lines>\n");
+            for (int i = 0; i < hits.length; i++) {
+                if (hits[i] != CoverageData.NOT_RELEVANT) {
+                    xml.append("<line number=\"").append(i + 1).append("\" hits=\"").append(hits[i])
+                            .append("\" branch=\"false\"/>\n");
+                }
+            }
+            return xml.append("</lines>\n</class>\n</classes>\n</package>\n").toString();
+        }
+
+        @Override
+        protected String footer(CoverageData coverage) {
+            return "</packages>\n</coverage>\n";
+        }
+    },
+
+    /**
+     * Coveralls report, as {@code UT_COVERALLS_REPORTER}.
+     */
+    COVERALLS(CoreReporters.UT_COVERALLS_REPORTER) {
+        @Override
+        protected String header(CoverageData coverage) {
+            return "{\"source_files\":[\n";
+        }
+
+        @Override
+        protected String renderFile(String file, long[] hits, File baseDirectory) {
+            StringBuilder json = new StringBuilder();
+            json.append("{ \"name\": \"").append(file.replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append("\",\n\"coverage\": [\n");
+            for (int i = 0; i < hits.length; i++) {
+                json.append(i == 0 ? "" : ",\n").append(hits[i] == CoverageData.NOT_RELEVANT ? "null" : hits[i]);
+            }
+            return json.append("\n]\n}").toString();
+        }
+
+        @Override
+        protected String separator() {
+            return ",\n";
+        }
+
+        @Override
+        protected String footer(CoverageData coverage) {
+            return "]}\n";
+        }
+    },
+
+    /**
+     * HTML report, as {@code UT_COVERAGE_HTML_REPORTER}: a summary per file and
+     * the annotated source of the files found in the project.
+     */
+    HTML(CoreReporters.UT_COVERAGE_HTML_REPORTER) {
+        @Override
+        protected String header(CoverageData coverage) {
+            StringBuilder html = new StringBuilder();
+            html.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\"/>\n")
+                    .append("<title>Code coverage</title>\n<style>\n")
+                    .append("body{font-family:sans-serif} table{border-collapse:collapse}\n")
+                    .append("td,th{padding:2px 8px;text-align:left} pre{margin:0}\n")
+                    .append(".covered{background:#dfd} .missed{background:#fdd}\n</style>\n</head>\n<body>\n");
+            html.append("<h1>Code coverage</h1>\n<p>").append(percent(coverage.getLinesCovered(),
+                    coverage.getLinesValid())).append(" lines covered (").append(coverage.getLinesCovered())
+                    .append(" of ").append(coverage.getLinesValid()).append(")</p>\n");
+            html.append("<table>\n<tr><th>File</th><th>Coverage</th><th>Relevant lines</th>"
+                    + "<th>Covered lines</th></tr>\n");
+            for (String file : coverage.getFiles()) {
+                long[] hits = coverage.getHits(file);
+                long valid = CoverageData.getLinesValid(hits);
+                long covered = CoverageData.getLinesCovered(hits);
+                html.append("<tr><td><a href=\"#").append(anchor(file)).append("\">").append(escape(file))
+                        .append("</a></td><td>").append(percent(covered, valid)).append("</td><td>")
+                        .append(valid).append("</td><td>").append(covered).append("</td></tr>\n");
+            }
+            return html.append("</table>\n").toString();
+        }
+
+        @Override
+        protected String renderFile(String file, long[] hits, File baseDirectory) {
+            List<String> source = readSource(file, baseDirectory);
+            StringBuilder html = new StringBuilder();
+            html.append("<h2 id=\"").append(anchor(file)).append("\">").append(escape(file)).append("</h2>\n");
+            html.append("<table>\n");
+            int lines = Math.max(hits.length, source.size());
+            for (int i = 0; i < lines; i++) {
+                long hit = i < hits.length ? hits[i] : CoverageData.NOT_RELEVANT;
+                String style = hit == CoverageData.NOT_RELEVANT ? ""
+                        : hit > 0 ? " class=\"covered\"" : " class=\"missed\"";
+                html.append("<tr").append(style).append("><td>").append(i + 1).append("</td><td>")
+                        .append(hit == CoverageData.NOT_RELEVANT ? "" : String.valueOf(hit)).append("</td><td><pre>")
+                        .append(i < source.size() ? escape(source.get(i)) : "").append("</pre></td></tr>\n");
+            }
+            return html.append("</table>\n").toString();
+        }
+
+        @Override
+        protected String footer(CoverageData coverage) {
+            return "</body>\n</html>\n";
+        }
+    };
+
+    private final CoreReporters reporter;
+
+    private CoverageFormat(CoreReporters reporter) {
+        this.reporter = reporter;
+    }
+
+    /**
+     * Returns the format rendering the report of a utPLSQL coverage reporter.
+     *
+     * @param reporterName the reporter name
+     * @return the format, or null if the reporter is not a coverage reporter
+     */
+    public static CoverageFormat of(String reporterName) {
+        for (CoverageFormat format : values()) {
+            if (format.reporter.name().equalsIgnoreCase(reporterName)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Renders the coverage report.
+     *
+     * @param coverage      the coverage data
+     * @param out           the stream receiving the report, not closed
+     * @param baseDirectory the project directory, the file names are relative to
+     * @throws IOException if the report cannot be written
+     */
+    public void render(CoverageData coverage, OutputStream out, File baseDirectory) throws IOException {
+        List<String> fragments = coverage.getFiles().parallelStream()
+                .map(file -> renderFile(file, coverage.getHits(file), baseDirectory))
+                .collect(Collectors.toList());
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(header(coverage));
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                writer.write(separator());
+            }
+            writer.write(fragments.get(i));
+        }
+        writer.write(footer(coverage));
+        writer.flush();
+    }
+
+    /**
+     * Renders the start of the report.
+     *
+     * @param coverage the coverage data
+     * @return the header
+     */
+    protected abstract String header(CoverageData coverage);
+
+    /**
+     * Renders the coverage of a file.
+     *
+     * @param file          the file name
+     * @param hits          the hits of each line of the file
+     * @param baseDirectory the project directory
+     * @return the file fragment
+     */
+    protected abstract String renderFile(String file, long[] hits, File baseDirectory);
+
+    /**
+     * Returns the separator written between two file fragments.
+     *
+     * @return the separator
+     */
+    protected String separator() {
+        return "";
+    }
+
+    /**
+     * Renders the end of the report.
+     *
+     * @param coverage the coverage data
+     * @return the footer
+     */
+    protected abstract String footer(CoverageData coverage);
+
+    private static String rate(long covered, long valid) {
+        return String.format(Locale.ROOT, "%.4f", CoverageData.getLineRate(covered, valid));
+    }
+
+    private static String percent(long covered, long valid) {
+        return String.format(Locale.ROOT, "%.2f%%", CoverageData.getLineRate(covered, valid) * 100);
+    }
+
+    private static String anchor(String file) {
+        return file.replaceAll("[^\\w.-]", "_");
+    }
+
+    private static List<String> readSource(String file, File baseDirectory) {
+        File source = new File(file);
+        if (!source.isAbsolute() && baseDirectory != null) {
+            source = new File(baseDirectory, file);
+        }
+        try {
+            return source.isFile() ? Files.readAllLines(source.toPath(), StandardCharsets.UTF_8)
+                    : Collections.emptyList();
+        } catch (IOException e) {
+            // Object not mapped to a project file, or not UTF-8: hits only.
+            return Collections.emptyList();
+        }
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            switch (c) {
+            case '<':
+                escaped.append("&lt;");
+                break;
+            case '>':
+                escaped.append("&gt;");
+                break;
+            case '&':
+                escaped.append("&amp;");
+                break;
+            case '"':
+                escaped.append("&quot;");
+                break;
+            default:
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
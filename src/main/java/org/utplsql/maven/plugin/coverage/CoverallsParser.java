@@ -0,0 +1,211 @@
+package org.utplsql.maven.plugin.coverage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parses the output of the utPLSQL coveralls reporter into coverage data.
+ *
+ * The coveralls report is the most compact coverage report of utPLSQL: the
+ * name of each file followed by the hits of its lines. It is tokenized as it is
+ * drained, one line at a time, so only the coverage data itself is kept in
+ * memory.
+ */
+public class CoverallsParser extends OutputStream {
+
+    private final CoverageData coverage = new CoverageData();
+
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    private StringBuilder string;
+
+    private boolean escape;
+
+    private final StringBuilder word = new StringBuilder();
+
+    private String lastString;
+
+    private String key;
+
+    private boolean afterColon;
+
+    private boolean inCoverage;
+
+    private String name;
+
+    private long[] hits;
+
+    private int hitCount;
+
+    /**
+     * Returns a print stream writing to this parser, to be given to the output
+     * buffer of the coveralls reporter.
+     *
+     * @return the print stream
+     */
+    public PrintStream getPrintStream() {
+        try {
+            return new PrintStream(this, false, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the coverage parsed so far.
+     *
+     * @return the coverage data
+     */
+    public CoverageData getCoverage() {
+        return coverage;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        line.write(b);
+        if (b == '\n') {
+            endLine();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int start = off;
+        for (int i = off; i < off + len; i++) {
+            if (b[i] == '\n') {
+                line.write(b, start, i + 1 - start);
+                endLine();
+                start = i + 1;
+            }
+        }
+        line.write(b, start, off + len - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (line.size() > 0) {
+            endLine();
+        }
+    }
+
+    private void endLine() throws IOException {
+        String text = line.toString(StandardCharsets.UTF_8.name());
+        line.reset();
+        for (int i = 0; i < text.length(); i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    private void accept(char c) {
+        if (string != null) {
+            acceptStringCharacter(c);
+            return;
+        }
+
+        if (Character.isLetterOrDigit(c) || c == '-' || c == '.') {
+            word.append(c);
+            return;
+        }
+        endWord();
+
+        switch (c) {
+        case '"':
+            string = new StringBuilder();
+            break;
+        case ':':
+            key = lastString;
+            afterColon = true;
+            break;
+        case '[':
+            if ("coverage".equals(key) && afterColon) {
+                inCoverage = true;
+                hits = new long[256];
+                hitCount = 0;
+            }
+            afterColon = false;
+            break;
+        case ']':
+            inCoverage = false;
+            break;
+        case '}':
+            if (name != null && hits != null) {
+                coverage.add(name, Arrays.copyOf(hits, hitCount));
+            }
+            name = null;
+            hits = null;
+            afterColon = false;
+            break;
+        case ',':
+            afterColon = false;
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void acceptStringCharacter(char c) {
+        if (escape) {
+            escape = false;
+            switch (c) {
+            case 'n':
+                string.append('\n');
+                break;
+            case 't':
+                string.append('\t');
+                break;
+            case 'r':
+                string.append('\r');
+                break;
+            default:
+                // \\, \" and \/ stand for themselves, \\u escapes are kept as is.
+                string.append(c == 'u' ? "\\u" : String.valueOf(c));
+                break;
+            }
+        } else if (c == '\\') {
+            escape = true;
+        } else if (c == '"') {
+            String value = string.toString();
+            string = null;
+            if (afterColon) {
+                if ("name".equals(key)) {
+                    name = value;
+                }
+                afterColon = false;
+            } else {
+                lastString = value;
+            }
+        } else {
+            string.append(c);
+        }
+    }
+
+    private void endWord() {
+        if (word.length() == 0) {
+            return;
+        }
+        String value = word.toString();
+        word.setLength(0);
+        afterColon = false;
+        if (!inCoverage) {
+            return;
+        }
+
+        if (hitCount == hits.length) {
+            hits = Arrays.copyOf(hits, hits.length * 2);
+        }
+        if ("null".equals(value)) {
+            hits[hitCount++] = CoverageData.NOT_RELEVANT;
+        } else {
+            try {
+                hits[hitCount++] = Math.max(0, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                hits[hitCount++] = CoverageData.NOT_RELEVANT;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.utplsql.maven.plugin.deploy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Order in which the project scripts are deployed.
+ *
+ * Each script defines the object its file is mapped to by the source or test
+ * mapping options. A script depends on the scripts defining the objects it
+ * references by name, its comments and string literals aside, and a body on
+ * the specification of its object. Bodies are never waited for: only the
+ * specifications are needed to compile the objects referencing them.
+ */
+public class DeploymentPlan {
+
+    private final Map<String, DatabaseObject> objects = new LinkedHashMap<>();
+
+    private final Map<String, Set<String>> references = new HashMap<>();
+
+    /**
+     * Adds a script to the plan.
+     *
+     * @param filePath the script file path
+     * @param object   the object defined by the script, or null if its file is
+     *                 not mapped to an object
+     * @param script   the script content
+     */
+    public void add(String filePath, DatabaseObject object, String script) {
+        objects.put(filePath, object);
+        references.put(filePath, findIdentifiers(script));
+    }
+
+    /**
+     * Returns the script file paths, in the order they were added.
+     *
+     * @return the file paths
+     */
+    public List<String> getFiles() {
+        return new ArrayList<>(objects.keySet());
+    }
+
+    /**
+     * Returns the object defined by a script.
+     *
+     * @param filePath the script file path
+     * @return the object, or null if unknown
+     */
+    public DatabaseObject getObject(String filePath) {
+        return objects.get(filePath);
+    }
+
+    /**
+     * Returns the scripts each script must wait for.
+     *
+     * @return the file paths of the dependencies, by file path
+     */
+    public Map<String, Set<String>> getDependencies() {
+        Map<String, List<String>> specifications = new HashMap<>();
+        objects.forEach((filePath, object) -> {
+            if (object != null && !isBody(object)) {
+                specifications.computeIfAbsent(object.getName(), name -> new ArrayList<>()).add(filePath);
+            }
+        });
+
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        objects.forEach((filePath, object) -> {
+            Set<String> waitFor = new LinkedHashSet<>();
+            for (String identifier : references.get(filePath)) {
+                for (String specification : specifications.getOrDefault(identifier, new ArrayList<>())) {
+                    if (object == null || !object.getName().equals(identifier) || isBody(object)) {
+                        waitFor.add(specification);
+                    }
+                }
+            }
+            waitFor.remove(filePath);
+            dependencies.put(filePath, waitFor);
+        });
+        return dependencies;
+    }
+
+    private static boolean isBody(DatabaseObject object) {
+        return object.getType() != null && object.getType().endsWith("BODY");
+    }
+
+    /**
+     * Returns the identifiers of a script, upper cased, its comments and string
+     * literals aside.
+     *
+     * @param script the script content
+     * @return the identifiers
+     */
+    static Set<String> findIdentifiers(String script) {
+        Set<String> identifiers = new LinkedHashSet<>();
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+            if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                i = indexOf(script, "\n", i + 2);
+            } else if (c == '/' && i + 1 < length && script.charAt(i + 1) == '*') {
+                i = indexOf(script, "*/", i + 2) + 1;
+            } else if (c == '\'') {
+                // Doubled quotes are read as two consecutive literals.
+                i = indexOf(script, "'", i + 1);
+            } else if (c == '"') {
+                int end = indexOf(script, "\"", i + 1);
+                identifiers.add(script.substring(i + 1, Math.min(end, length)));
+                i = end;
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i + 1 < length && isIdentifierPart(script.charAt(i + 1))) {
+                    i++;
+                }
+                identifiers.add(script.substring(start, i + 1).toUpperCase(Locale.ROOT));
+            }
+            i++;
+        }
+        return identifiers;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    private static int indexOf(String script, String token, int from) {
+        int index = script.indexOf(token, from);
+        return index < 0 ? script.length() : index;
+    }
+}
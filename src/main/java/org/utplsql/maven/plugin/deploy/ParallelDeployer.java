@@ -0,0 +1,244 @@
+package org.utplsql.maven.plugin.deploy;
+
+import static java.lang.String.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.sql.DataSource;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Deploys the scripts of a deployment plan on several database sessions.
+ *
+ * A script is started as soon as the scripts it depends on have run, so the
+ * independent objects compile at the same time. A dependency cycle is broken
+ * by starting the waiting script with the fewest pending dependencies. Objects
+ * left invalid, by a cycle or a dependency the plan does not know, are then
+ * recompiled at once with {@code UTL_RECOMP}, or with
+ * {@code DBMS_UTILITY.COMPILE_SCHEMA} when the former is not granted.
+ */
+public class ParallelDeployer {
+
+    private static final Log LOG = new SystemStreamLog();
+
+    private static final String INVALID_OBJECTS_QUERY = "select object_name from all_objects "
+            + "where owner = ? and status = 'INVALID'";
+
+    private final DataSource dataSource;
+
+    private final File baseDir;
+
+    private final int threads;
+
+    private final ScriptDeployer scriptDeployer = new ScriptDeployer();
+
+    /**
+     * Creates a new deployer.
+     *
+     * @param dataSource the data source of the sessions
+     * @param baseDir    the directory the script file paths are relative to
+     * @param threads    the number of sessions
+     */
+    public ParallelDeployer(DataSource dataSource, File baseDir, int threads) {
+        this.dataSource = dataSource;
+        this.baseDir = baseDir;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Deploys the scripts of the plan, then recompiles the invalid objects.
+     *
+     * @param plan the deployment plan
+     * @return the deployment errors, empty if all the objects compiled
+     * @throws SQLException           if a session cannot be opened
+     * @throws MojoExecutionException if the deployment is interrupted
+     */
+    public List<String> deploy(DeploymentPlan plan) throws SQLException, MojoExecutionException {
+        List<String> files = plan.getFiles();
+        if (files.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Set<String>> waiting = plan.getDependencies();
+        Map<String, List<String>> dependents = new HashMap<>();
+        waiting.forEach((file, dependencies) -> dependencies
+                .forEach(dependency -> dependents.computeIfAbsent(dependency, d -> new ArrayList<>()).add(file)));
+
+        int sessionCount = Math.min(threads, files.size());
+        BlockingQueue<Connection> sessions = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(sessionCount);
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        try {
+            for (int i = 0; i < sessionCount; i++) {
+                sessions.add(dataSource.getConnection());
+            }
+
+            CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+            Queue<String> ready = new ArrayDeque<>();
+            files.stream().filter(file -> waiting.get(file).isEmpty()).forEach(ready::add);
+            Set<String> pending = new LinkedHashSet<>(files);
+            pending.removeAll(ready);
+
+            int running = 0;
+            int deployed = 0;
+            while (deployed < files.size()) {
+                while (!ready.isEmpty()) {
+                    String file = ready.poll();
+                    completion.submit(() -> {
+                        deployScript(sessions, file, plan.getObject(file), failures);
+                        return file;
+                    });
+                    running++;
+                }
+                if (running == 0) {
+                    String file = pending.stream().min(Comparator.comparingInt(f -> waiting.get(f).size())).get();
+                    LOG.debug(format("Dependency cycle, deploying %s before %s", file, waiting.get(file)));
+                    pending.remove(file);
+                    ready.add(file);
+                    continue;
+                }
+
+                String file = completion.take().get();
+                running--;
+                deployed++;
+                for (String dependent : dependents.getOrDefault(file, new ArrayList<>())) {
+                    Set<String> dependencies = waiting.get(dependent);
+                    dependencies.remove(file);
+                    if (dependencies.isEmpty() && pending.remove(dependent)) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Unexpected error deploying the scripts", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while deploying the scripts", e);
+        } finally {
+            executor.shutdownNow();
+            for (Connection session : sessions) {
+                try {
+                    session.close();
+                } catch (SQLException e) {
+                    LOG.debug("Failed to close a deployment session", e);
+                }
+            }
+        }
+
+        List<String> errors = new ArrayList<>();
+        files.stream().filter(failures::containsKey).forEach(file -> errors.add(file + ": " + failures.get(file)));
+        try (Connection connection = dataSource.getConnection()) {
+            errors.addAll(recompile(connection, plan));
+        }
+        return errors;
+    }
+
+    private void deployScript(BlockingQueue<Connection> sessions, String file, DatabaseObject object,
+            Map<String, String> failures) throws InterruptedException {
+        Connection session = sessions.take();
+        try {
+            // Compilation errors may come from the order, they are read once all is recompiled.
+            List<String> errors = scriptDeployer.deploy(session, new File(baseDir, file), object);
+            if (!errors.isEmpty() && (object == null || object.getOwner() == null)) {
+                // Not checked again after the recompilation.
+                failures.put(file, errors.get(0));
+            } else {
+                LOG.debug("Deployed " + file);
+            }
+        } catch (IOException | SQLException e) {
+            failures.put(file, String.valueOf(e.getMessage()));
+        } finally {
+            sessions.add(session);
+        }
+    }
+
+    /**
+     * Recompiles the invalid objects of the schemas of the plan, and returns the
+     * errors of the objects of the plan still invalid.
+     */
+    private List<String> recompile(Connection connection, DeploymentPlan plan) throws SQLException {
+        Map<String, Set<String>> objectsByOwner = new HashMap<>();
+        for (String file : plan.getFiles()) {
+            DatabaseObject object = plan.getObject(file);
+            if (object != null && object.getOwner() != null) {
+                objectsByOwner.computeIfAbsent(object.getOwner(), owner -> new LinkedHashSet<>())
+                        .add(object.getName());
+            }
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : objectsByOwner.entrySet()) {
+            String owner = entry.getKey();
+            if (getInvalidObjects(connection, owner).isEmpty()) {
+                continue;
+            }
+            recompileSchema(connection, owner);
+            for (String name : getInvalidObjects(connection, owner)) {
+                if (entry.getValue().contains(name)) {
+                    List<String> objectErrors = ScriptDeployer.getErrors(connection,
+                            new DatabaseObject(owner, name, null));
+                    if (objectErrors.isEmpty()) {
+                        errors.add(format("%s.%s is invalid", owner, name));
+                    }
+                    errors.addAll(objectErrors);
+                }
+            }
+        }
+        return errors;
+    }
+
+    private void recompileSchema(Connection connection, String owner) throws SQLException {
+        try (CallableStatement stmt = connection.prepareCall("begin utl_recomp.recomp_parallel(?, ?); end;")) {
+            stmt.setInt(1, threads);
+            stmt.setString(2, owner);
+            stmt.execute();
+            return;
+        } catch (SQLException e) {
+            LOG.debug("UTL_RECOMP unavailable, recompiling with DBMS_UTILITY: " + e.getMessage());
+        }
+        try (CallableStatement stmt = connection
+                .prepareCall("begin dbms_utility.compile_schema(schema => ?, compile_all => false); end;")) {
+            stmt.setString(1, owner);
+            stmt.execute();
+        }
+    }
+
+    private static Set<String> getInvalidObjects(Connection connection, String owner) throws SQLException {
+        Set<String> names = new LinkedHashSet<>();
+        try (PreparedStatement stmt = connection.prepareStatement(INVALID_OBJECTS_QUERY)) {
+            stmt.setString(1, owner);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+}
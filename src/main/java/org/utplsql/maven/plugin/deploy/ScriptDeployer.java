@@ -0,0 +1,217 @@
+package org.utplsql.maven.plugin.deploy;
+
+import static java.lang.String.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Deploys the project scripts to the database.
+ *
+ * The scripts are written for SQL*Plus: statements end with a line holding a
+ * single slash, or with a semicolon for the statements that are not PL/SQL
+ * units. The SQL*Plus commands heading a statement are skipped, except
+ * {@code EXECUTE} whose call is run as an anonymous block. A unit compiled with
+ * errors does not fail the script, its errors are read from {@code ALL_ERRORS}
+ * instead.
+ *
+ * Tables, sequences, indexes and constraints cannot be created or replaced, a
+ * statement creating one that a previous deployment left is skipped so the
+ * scripts can be deployed again.
+ */
+public class ScriptDeployer {
+
+    private static final Log LOG = new SystemStreamLog();
+
+    // ORA-00955, ORA-01408, ORA-01430, ORA-02260, ORA-02261, ORA-02264 and ORA-02275.
+    private static final Set<Integer> ALREADY_EXISTS_ERRORS = new HashSet<>(
+            Arrays.asList(955, 1408, 1430, 2260, 2261, 2264, 2275));
+
+    private static final Pattern SQLPLUS_COMMAND = Pattern.compile(
+            "(?i)(@|--|rem\\b|remark\\b|prompt\\b|pro\\b|set\\b|show\\b|spool\\b|whenever\\b|define\\b|undefine\\b"
+                    + "|column\\b|col\\b|exit\\b|quit\\b).*");
+
+    private static final Pattern SQLPLUS_EXECUTE = Pattern.compile("(?i)exec(ute)?\\s+(.*?)[;\\s]*");
+
+    private static final Pattern PLSQL_UNIT = Pattern.compile(
+            "(?i)(create\\s+(or\\s+replace\\s+)?((editionable|noneditionable)\\s+)?"
+                    + "(package|type|function|procedure|trigger|library|java)|declare|begin)\\b");
+
+    private static final String ERRORS_QUERY = "select type, line, position, text from all_errors "
+            + "where owner = ? and name = ? and attribute = 'ERROR' order by type, sequence";
+
+    /**
+     * Runs a script and returns the compilation errors of the object it defines.
+     *
+     * @param connection the database connection
+     * @param script     the script file
+     * @param object     the object defined by the script, or null if unknown
+     * @return the compilation errors, empty if the object compiled, a single
+     *         generic error if the errors cannot be read from the object
+     * @throws IOException  if the script cannot be read
+     * @throws SQLException if a statement fails
+     */
+    public List<String> deploy(Connection connection, File script, DatabaseObject object)
+            throws IOException, SQLException {
+        String content = new String(Files.readAllBytes(script.toPath()), StandardCharsets.UTF_8);
+        boolean warned = false;
+        try (Statement statement = connection.createStatement()) {
+            statement.setEscapeProcessing(false);
+            for (String sql : splitStatements(content)) {
+                try {
+                    statement.execute(sql);
+                } catch (SQLException e) {
+                    if (!ALREADY_EXISTS_ERRORS.contains(e.getErrorCode())) {
+                        throw e;
+                    }
+                    LOG.debug(format("Skipped in %s, already deployed: %s", script.getName(), e.getMessage()));
+                }
+                // Compilation errors are only reported as a warning.
+                warned |= statement.getWarnings() != null;
+                statement.clearWarnings();
+            }
+        }
+        if (!warned) {
+            return Collections.emptyList();
+        }
+        List<String> errors = object == null || object.getOwner() == null ? Collections.emptyList()
+                : getErrors(connection, object);
+        if (errors.isEmpty()) {
+            // The unit compiled is not the object the file is mapped to.
+            return Collections.singletonList(format("%s compiled with errors", script.getName()));
+        }
+        return errors;
+    }
+
+    /**
+     * Splits a script into the statements to execute.
+     *
+     * @param script the script content
+     * @return the statements, without their terminator
+     */
+    public static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        for (String line : script.split("\r?\n", -1)) {
+            String trimmed = line.trim();
+            if (skipComments(statement) == statement.length()) {
+                Matcher execute = SQLPLUS_EXECUTE.matcher(trimmed);
+                if (execute.matches()) {
+                    statements.add("begin\n" + execute.group(2) + ";\nend;");
+                    continue;
+                }
+                if (trimmed.isEmpty() || SQLPLUS_COMMAND.matcher(trimmed).matches()) {
+                    continue;
+                }
+            }
+            if (trimmed.equals("/")) {
+                addStatement(statements, statement);
+                continue;
+            }
+            statement.append(statement.length() == 0 ? trimmed : line).append('\n');
+            if (trimmed.endsWith(";") && !isUnit(statement)) {
+                addStatement(statements, statement);
+            }
+        }
+        addStatement(statements, statement);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder statement) {
+        String sql = statement.toString().trim();
+        statement.setLength(0);
+        if (skipComments(sql) == sql.length()) {
+            return;
+        }
+        if (!isUnit(sql)) {
+            while (sql.endsWith(";")) {
+                sql = sql.substring(0, sql.length() - 1).trim();
+            }
+        }
+        statements.add(sql);
+    }
+
+    // PL/SQL units end with a slash, their semicolons being part of the code.
+    private static boolean isUnit(CharSequence statement) {
+        int start = skipComments(statement);
+        if (start < 0) {
+            // Semicolons of a heading comment do not end the statement.
+            return true;
+        }
+        return PLSQL_UNIT.matcher(statement).region(start, statement.length()).lookingAt();
+    }
+
+    /**
+     * Returns the index of the first character of the statement that is neither
+     * a blank nor part of a heading comment, -1 if a heading block comment is not
+     * closed yet.
+     */
+    private static int skipComments(CharSequence statement) {
+        int length = statement.length();
+        int i = 0;
+        while (i < length) {
+            char c = statement.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && statement.charAt(i + 1) == '-') {
+                while (i < length && statement.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && statement.charAt(i + 1) == '*') {
+                i += 2;
+                while (i + 1 < length && !(statement.charAt(i) == '*' && statement.charAt(i + 1) == '/')) {
+                    i++;
+                }
+                if (i + 1 >= length) {
+                    return -1;
+                }
+                i += 2;
+            } else {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the compilation errors of an object.
+     *
+     * @param connection the database connection
+     * @param object     the object
+     * @return the compilation errors, one line each
+     * @throws SQLException if the errors cannot be read
+     */
+    public static List<String> getErrors(Connection connection, DatabaseObject object) throws SQLException {
+        List<String> errors = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(ERRORS_QUERY)) {
+            stmt.setString(1, object.getOwner());
+            stmt.setString(2, object.getName());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    errors.add(format("%s %s.%s line %d:%d %s", rs.getString(1), object.getOwner(), object.getName(),
+                            rs.getInt(2), rs.getInt(3), rs.getString(4).trim()));
+                }
+            }
+        }
+        return errors;
+    }
+}
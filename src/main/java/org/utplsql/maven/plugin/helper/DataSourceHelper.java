@@ -0,0 +1,146 @@
+package org.utplsql.maven.plugin.helper;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import oracle.jdbc.pool.OracleDataSource;
+import oracle.ucp.UniversalConnectionPoolException;
+import oracle.ucp.admin.UniversalConnectionPoolManager;
+import oracle.ucp.admin.UniversalConnectionPoolManagerImpl;
+import oracle.ucp.jdbc.PoolDataSource;
+import oracle.ucp.jdbc.PoolDataSourceFactory;
+
+/**
+ * Utility to create the data sources used to connect to the database.
+ *
+ * Pooled data sources are kept for the whole build, so the modules of a reactor
+ * build targeting the same database reuse the already opened connections. They
+ * are closed at the end of the build, or when the next build starts in the same
+ * JVM, so their sessions never outlive the build.
+ */
+public class DataSourceHelper {
+
+    /**
+     * Maximum number of connections of a pooled data source.
+     */
+    public static final int MAX_POOL_SIZE = 64;
+
+    /**
+     * Idle time, in seconds, after which a pooled connection is validated before
+     * being borrowed again.
+     */
+    public static final int SECONDS_TO_TRUST_IDLE_CONNECTION = 60;
+
+    private static final Map<String, PoolDataSource> POOLS = new HashMap<>();
+
+    // Build the pools were opened by.
+    private static Object poolsBuild;
+
+    private DataSourceHelper() {
+        // NA
+    }
+
+    /**
+     * Returns a data source for the given connection settings.
+     *
+     * @param url        the JDBC URL
+     * @param user       the database user
+     * @param password   the database password
+     * @param properties the connection properties
+     * @param pooled     whether the connections are pooled for the whole build
+     * @return a data source
+     * @throws SQLException if the data source cannot be created
+     */
+    public static DataSource getDataSource(String url, String user, String password, Properties properties,
+            boolean pooled) throws SQLException {
+        if (!pooled) {
+            OracleDataSource ds = new OracleDataSource();
+            ds.setURL(url);
+            ds.setUser(user);
+            ds.setPassword(password);
+            ds.setConnectionProperties(properties);
+            return ds;
+        }
+
+        String key = url + '|' + user + '|' + password + '|' + properties;
+        synchronized (POOLS) {
+            PoolDataSource pds = POOLS.get(key);
+            if (pds == null) {
+                pds = PoolDataSourceFactory.getPoolDataSource();
+                pds.setConnectionPoolName("utplsql-maven-plugin-" + (POOLS.size() + 1));
+                pds.setConnectionFactoryClassName(OracleDataSource.class.getName());
+                pds.setURL(url);
+                pds.setUser(user);
+                pds.setPassword(password);
+                pds.setConnectionProperties(properties);
+                pds.setInitialPoolSize(0);
+                pds.setMinPoolSize(0);
+                pds.setMaxPoolSize(MAX_POOL_SIZE);
+                pds.setValidateConnectionOnBorrow(true);
+                // Connections used a moment ago are borrowed without a validation round trip.
+                pds.setSecondsToTrustIdleConnection(SECONDS_TO_TRUST_IDLE_CONNECTION);
+                POOLS.put(key, pds);
+            }
+            return pds;
+        }
+    }
+
+    /**
+     * Starts using the pools for a build, closing the pools left by a previous
+     * build run in the same JVM.
+     *
+     * @param build the build, compared by equality
+     */
+    public static void startBuild(Object build) {
+        synchronized (POOLS) {
+            if (!Objects.equals(build, poolsBuild)) {
+                closePools();
+                poolsBuild = build;
+            }
+        }
+    }
+
+    /**
+     * Closes the pooled data sources and all their connections.
+     */
+    public static void closePools() {
+        synchronized (POOLS) {
+            for (PoolDataSource pds : POOLS.values()) {
+                try {
+                    getPoolManager().destroyConnectionPool(pds.getConnectionPoolName());
+                } catch (UniversalConnectionPoolException e) {
+                    // The pool was never started.
+                }
+            }
+            POOLS.clear();
+            poolsBuild = null;
+        }
+    }
+
+    /**
+     * Replaces the sessions of a pooled data source, which may keep the state of
+     * packages compiled again since they were opened. The connections currently
+     * borrowed are replaced when returned.
+     *
+     * @param dataSource the data source, left as is if not pooled
+     */
+    public static void resetSessions(DataSource dataSource) {
+        if (!(dataSource instanceof PoolDataSource)) {
+            return;
+        }
+        try {
+            getPoolManager().refreshConnectionPool(((PoolDataSource) dataSource).getConnectionPoolName());
+        } catch (UniversalConnectionPoolException e) {
+            // The pool was never started.
+        }
+    }
+
+    private static UniversalConnectionPoolManager getPoolManager() throws UniversalConnectionPoolException {
+        return UniversalConnectionPoolManagerImpl.getUniversalConnectionPoolManager();
+    }
+}
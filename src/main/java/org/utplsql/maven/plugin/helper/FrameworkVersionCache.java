@@ -0,0 +1,109 @@
+package org.utplsql.maven.plugin.helper;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.utplsql.api.Version;
+import org.utplsql.api.db.DatabaseInformation;
+
+/**
+ * Caches the utPLSQL framework version of a database schema.
+ *
+ * Versions are kept for the whole build session, so the modules of a reactor
+ * build probe the framework once. They are forgotten when the next build starts
+ * in the same JVM, the framework having possibly been reinstalled meanwhile.
+ */
+public class FrameworkVersionCache {
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)");
+
+    private static final Map<String, Version> SESSION_CACHE = new ConcurrentHashMap<>();
+
+    // Build the versions were probed by.
+    private static Object cacheBuild;
+
+    private FrameworkVersionCache() {
+        // NA
+    }
+
+    /**
+     * Returns the utPLSQL framework version of a schema, probing the database
+     * only if the version is not cached.
+     *
+     * @param connection          the database connection
+     * @param databaseInformation the database information used to probe the
+     *                            version
+     * @param url                 the JDBC URL
+     * @param schema              the schema
+     * @return the framework version
+     * @throws SQLException if the version cannot be read
+     */
+    public static Version getFrameworkVersion(Connection connection, DatabaseInformation databaseInformation,
+            String url, String schema) throws SQLException {
+        String key = url + "|" + (schema == null ? "" : schema.toUpperCase());
+        Version version = SESSION_CACHE.get(key);
+        if (version == null) {
+            version = databaseInformation.getUtPlsqlFrameworkVersion(connection);
+            SESSION_CACHE.put(key, version);
+        }
+        return version;
+    }
+
+    /**
+     * Returns true if a framework version is compatible with a java-api version,
+     * that is if it has the same major version and is at least as recent. The
+     * compatibility check of the test runner is then redundant.
+     *
+     * @param frameworkVersion the framework version
+     * @param apiVersion       the java-api version
+     * @return true if the versions are compatible
+     */
+    public static boolean isCompatible(Version frameworkVersion, String apiVersion) {
+        int[] framework = parse(String.valueOf(frameworkVersion));
+        int[] api = parse(apiVersion);
+        if (framework == null || api == null || framework[0] != api[0]) {
+            return false;
+        }
+        for (int i = 1; i < framework.length; i++) {
+            if (framework[i] != api[i]) {
+                return framework[i] > api[i];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts caching the versions for a build, forgetting the versions probed by
+     * a previous build run in the same JVM.
+     *
+     * @param build the build, compared by equality
+     */
+    public static synchronized void startBuild(Object build) {
+        if (!Objects.equals(build, cacheBuild)) {
+            SESSION_CACHE.clear();
+            cacheBuild = build;
+        }
+    }
+
+    /**
+     * Clears the versions cached for the build session.
+     */
+    public static synchronized void clear() {
+        SESSION_CACHE.clear();
+        cacheBuild = null;
+    }
+
+    private static int[] parse(String version) {
+        Matcher matcher = VERSION_PATTERN.matcher(version);
+        if (!matcher.find()) {
+            return null;
+        }
+        return new int[] { Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)) };
+    }
+}
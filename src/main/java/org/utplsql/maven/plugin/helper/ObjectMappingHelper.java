@@ -0,0 +1,130 @@
+package org.utplsql.maven.plugin.helper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.api.KeyValuePair;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Maps project files to database objects, the same way utPLSQL maps them for
+ * the coverage reports.
+ */
+public class ObjectMappingHelper {
+
+    /**
+     * Default file name pattern of utPLSQL.
+     */
+    public static final String DEFAULT_REGEX_PATTERN = ".*(\\\\|\\/)((\\w+)\\.)?(\\w+)\\.(\\w{3})";
+
+    /**
+     * Default owner subexpression of utPLSQL.
+     */
+    public static final int DEFAULT_OWNER_SUBEXPRESSION = 3;
+
+    /**
+     * Default name subexpression of utPLSQL.
+     */
+    public static final int DEFAULT_NAME_SUBEXPRESSION = 4;
+
+    /**
+     * Default type subexpression of utPLSQL.
+     */
+    public static final int DEFAULT_TYPE_SUBEXPRESSION = 5;
+
+    private static final Map<String, String> DEFAULT_TYPE_MAPPINGS = new HashMap<>();
+
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    static {
+        DEFAULT_TYPE_MAPPINGS.put("TPB", "TYPE BODY");
+        DEFAULT_TYPE_MAPPINGS.put("PKB", "PACKAGE BODY");
+        DEFAULT_TYPE_MAPPINGS.put("BDY", "PACKAGE BODY");
+        DEFAULT_TYPE_MAPPINGS.put("TRG", "TRIGGER");
+        DEFAULT_TYPE_MAPPINGS.put("FNC", "FUNCTION");
+        DEFAULT_TYPE_MAPPINGS.put("PRC", "PROCEDURE");
+    }
+
+    private ObjectMappingHelper() {
+        // NA
+    }
+
+    /**
+     * Maps a file to the database object it defines.
+     *
+     * @param filePath     the file path, as given to utPLSQL
+     * @param options      the file mapping options
+     * @param defaultOwner the owner used when the options do not define one
+     * @return the database object, or null if the file does not match the pattern
+     */
+    public static DatabaseObject toDatabaseObject(String filePath, FileMapperOptions options, String defaultOwner) {
+        String regex = StringUtils.defaultIfEmpty(options.getRegexPattern(), DEFAULT_REGEX_PATTERN);
+        Matcher matcher = PATTERNS.computeIfAbsent(regex, r -> Pattern.compile(r, Pattern.CASE_INSENSITIVE))
+                .matcher(filePath);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        String name = group(matcher, options.getNameSubExpression(), DEFAULT_NAME_SUBEXPRESSION);
+        if (name == null) {
+            return null;
+        }
+
+        String owner = group(matcher, options.getOwnerSubExpression(), DEFAULT_OWNER_SUBEXPRESSION);
+        if (owner == null) {
+            owner = StringUtils.defaultIfEmpty(options.getObjectOwner(), defaultOwner);
+        }
+
+        String type = group(matcher, options.getTypeSubExpression(), DEFAULT_TYPE_SUBEXPRESSION);
+        if (type != null) {
+            type = mapType(type.toUpperCase(Locale.ROOT), options);
+        }
+
+        return new DatabaseObject(owner == null ? null : owner.toUpperCase(Locale.ROOT),
+                name.toUpperCase(Locale.ROOT), type);
+    }
+
+    /**
+     * Maps the files of the options to the database objects they define.
+     *
+     * @param options      the file mapping options, with their file paths
+     * @param defaultOwner the owner used when the options do not define one
+     * @return the files, by the database object they define
+     */
+    public static Map<DatabaseObject, String> toFileMap(FileMapperOptions options, String defaultOwner) {
+        Map<DatabaseObject, String> files = new LinkedHashMap<>();
+        for (String filePath : options.getFilePaths()) {
+            DatabaseObject object = toDatabaseObject(filePath, options, defaultOwner);
+            if (object != null) {
+                files.putIfAbsent(object, filePath);
+            }
+        }
+        return files;
+    }
+
+    private static String mapType(String type, FileMapperOptions options) {
+        if (options.getTypeMappings() != null) {
+            for (KeyValuePair mapping : options.getTypeMappings()) {
+                if (type.equalsIgnoreCase(mapping.getKey())) {
+                    return mapping.getValue().toUpperCase(Locale.ROOT);
+                }
+            }
+        }
+        return DEFAULT_TYPE_MAPPINGS.getOrDefault(type, type);
+    }
+
+    private static String group(Matcher matcher, Integer subExpression, int defaultSubExpression) {
+        int group = subExpression != null ? subExpression : defaultSubExpression;
+        if (group < 1 || group > matcher.groupCount()) {
+            return null;
+        }
+        return matcher.group(group);
+    }
+}
@@ -32,6 +32,59 @@ public class PluginDefault {
      */
     public static final String TEST_FILE_PATTERN = "**/*.pkg";
 
+    /**
+     * Test run time history file, relative to the build directory.
+     */
+    public static final String DURATION_HISTORY_FILE = "utplsql/test-durations.properties";
+
+    /**
+     * Tests failed on the last runs, relative to the build directory.
+     */
+    public static final String FAILED_TESTS_FILE = "utplsql/failed-tests.txt";
+
+    /**
+     * File hashes of the last successful run, relative to the build directory.
+     */
+    public static final String FILE_HASHES_FILE = "utplsql/file-hashes.properties";
+
+    /**
+     * State and reports of the last successful run, relative to the build
+     * directory.
+     */
+    public static final String UP_TO_DATE_DIRECTORY = "utplsql/up-to-date";
+
+    /**
+     * Execution metrics file, relative to the build directory.
+     */
+    public static final String METRICS_FILE = "utplsql-metrics.json";
+
+    /**
+     * Coverage data of each execution, relative to the build directory.
+     */
+    public static final String COVERAGE_DATA_DIRECTORY = "utplsql/coverage-data";
+
+    /**
+     * Extension of the coverage data files.
+     */
+    public static final String COVERAGE_DATA_EXTENSION = ".coverage";
+
+    /**
+     * Build directories of the targets of a fan-out execution, relative to the
+     * build directory.
+     */
+    public static final String TARGETS_DIRECTORY = "utplsql-targets";
+
+    /**
+     * Summary of the targets of a fan-out execution, relative to the build
+     * directory.
+     */
+    public static final String TARGETS_SUMMARY_FILE = "utplsql-targets/summary.json";
+
+    /**
+     * Resource scan cache directory, relative to the build directory.
+     */
+    public static final String SCAN_CACHE_DIRECTORY = "utplsql/scan-cache";
+
     private PluginDefault() {
         // NA
     }
@@ -18,6 +18,7 @@ public enum ReporterDefault {
     UT_XUNIT_REPORTER("utplsql/xunit-reporter.xml"),
     UT_COVERALLS_REPORTER("utplsql/coveralls-reporter.json"),
     UT_COVERAGE_SONAR_REPORTER("utplsql/coverage-sonar-reporter.xml"),
+    UT_COVERAGE_COBERTURA_REPORTER("utplsql/coverage-cobertura-reporter.xml"),
     UT_SONAR_TEST_REPORTER("utplsql/sonar-test-reporter.xml");
 
     private String outputFile;
@@ -3,27 +3,52 @@ package org.utplsql.maven.plugin.helper;
 import static java.lang.String.format;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.apache.maven.model.Resource;
-import org.codehaus.plexus.util.DirectoryScanner;
+import org.utplsql.maven.plugin.incremental.Fingerprint;
 
 /**
  * Utility to scan all resources
- * 
+ *
+ * Resources are walked with {@link Files#walkFileTree}, the sub directories of a
+ * resource and the resources themselves in parallel. Patterns follow the Ant
+ * syntax of the Maven resources and are compiled once per resource; directories
+ * excluded by a {@code dir/**} pattern are not walked at all. When a cache
+ * directory is given, the result of each resource is cached along with the
+ * modification time of the directories walked, and reused as long as none of
+ * these directories changed.
+ *
  * @author Alberto Hernández
  */
 public class SQLScannerHelper {
 
+    private static final String REGEX_PREFIX = "%regex[";
+
     private SQLScannerHelper() {
         // NA
     }
 
     /**
      * Scans a directory looking for the matching patterns.
-     * 
+     *
      * @param baseDir            the base directory
      * @param resources          a list of resources
      * @param defaultDirectory   the default search directory
@@ -32,8 +57,22 @@ public class SQLScannerHelper {
      */
     public static List<String> findSQLs(File baseDir, List<Resource> resources, String defaultDirectory,
             String defaultFilePattern) {
+        return findSQLs(baseDir, resources, defaultDirectory, defaultFilePattern, null);
+    }
 
-        List<String> founds = new ArrayList<String>();
+    /**
+     * Scans a directory looking for the matching patterns, reusing the cached
+     * result of the resources whose directories did not change.
+     *
+     * @param baseDir            the base directory
+     * @param resources          a list of resources
+     * @param defaultDirectory   the default search directory
+     * @param defaultFilePattern the default file pattern
+     * @param cacheDirectory     the scan cache directory, or null to always scan
+     * @return a list of the files found, sorted within each resource
+     */
+    public static List<String> findSQLs(File baseDir, List<Resource> resources, String defaultDirectory,
+            String defaultFilePattern, File cacheDirectory) {
 
         for (Resource resource : resources) {
 
@@ -45,35 +84,273 @@ public class SQLScannerHelper {
                 resource.getIncludes().add(defaultFilePattern);
             }
 
-            DirectoryScanner scanner = buildScanner(baseDir.getPath(), resource);
-            scanner.scan();
+            File fileBaseDir = new File(baseDir, resource.getDirectory());
+            if (!fileBaseDir.exists() || !fileBaseDir.isDirectory() || !fileBaseDir.canRead()) {
+                throw new IllegalArgumentException(
+                        format("Invalid <directory> %s in resource. Check your pom.xml", resource.getDirectory()));
+            }
+        }
+
+        try {
+            List<List<String>> founds = resources.parallelStream()
+                    .map(resource -> scanResource(baseDir, resource, cacheDirectory))
+                    .collect(Collectors.toList());
+            return founds.stream().flatMap(List::stream).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw new IllegalArgumentException("Unable to scan the resources: " + e.getCause().getMessage(), e);
+        }
+    }
+
+    /**
+     * Converts an Ant pattern to a regular expression matching '/' separated
+     * relative paths. Patterns written as {@code %regex[...]} are already regular
+     * expressions.
+     *
+     * @param antPattern the Ant pattern
+     * @return the regular expression
+     */
+    public static String toRegex(String antPattern) {
+        if (antPattern.startsWith(REGEX_PREFIX) && antPattern.endsWith("]")) {
+            return antPattern.substring(REGEX_PREFIX.length(), antPattern.length() - 1);
+        }
+
+        String pattern = antPattern.replace('\\', '/');
+        if (pattern.endsWith("/")) {
+            pattern += "**";
+        }
+
+        StringBuilder regex = new StringBuilder();
+        String[] segments = pattern.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean last = i == segments.length - 1;
+            if ("**".equals(segment)) {
+                regex.append(last ? ".*" : "(?:[^/]*/)*");
+                continue;
+            }
+            for (char c : segment.toCharArray()) {
+                if (c == '*') {
+                    regex.append("[^/]*");
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                } else {
+                    if ("\\.[]{}()<>+-=!^$|".indexOf(c) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(c);
+                }
+            }
+            if (!last) {
+                regex.append('/');
+            }
+        }
+        return regex.toString();
+    }
+
+    private static List<String> scanResource(File baseDir, Resource resource, File cacheDirectory) {
+        File fileBaseDir = new File(baseDir, resource.getDirectory());
+        // Files are reported relative to the base directory, or absolute if outside.
+        String prefix = baseDir.toURI().relativize(fileBaseDir.toURI()).getPath();
+        if (!prefix.isEmpty() && !prefix.endsWith("/")) {
+            prefix += "/";
+        }
 
-            for (String basename : scanner.getIncludedFiles()) {
-                founds.add(baseDir.toURI().relativize(new File(scanner.getBasedir(), basename).toURI()).getPath());
+        File cacheFile = null;
+        if (cacheDirectory != null) {
+            Fingerprint key = new Fingerprint()
+                    .add("directory", fileBaseDir.getAbsolutePath())
+                    .add("includes", resource.getIncludes())
+                    .add("excludes", resource.getExcludes());
+            cacheFile = new File(cacheDirectory, key + ".cache");
+            List<String> cached = ScanCache.read(cacheFile);
+            if (cached != null) {
+                return cached;
             }
+        }
 
-            founds.addAll(Arrays.asList());
+        long scanTime = System.currentTimeMillis();
+        ResourceScanner scanner = new ResourceScanner(fileBaseDir.toPath(), resource);
+        List<String> founds = new ArrayList<>();
+        for (String file : scanner.scan()) {
+            founds.add(prefix + file);
         }
+        Collections.sort(founds);
 
+        if (cacheFile != null) {
+            ScanCache.write(cacheFile, scanTime, scanner.directories, founds);
+        }
         return founds;
     }
 
-    private static DirectoryScanner buildScanner(String baseDir, Resource resource) {
+    /**
+     * Walks the directory of a resource.
+     */
+    private static class ResourceScanner {
 
-        if (resource != null) {
-            File fileBaseDir = new File(baseDir, resource.getDirectory());
-            if (!fileBaseDir.exists() || !fileBaseDir.isDirectory() || !fileBaseDir.canRead()) {
-                throw new IllegalArgumentException(
-                        format("Invalid <directory> %s in resource. Check your pom.xml", resource.getDirectory()));
+        private final Path root;
+
+        private final List<Pattern> includes = new ArrayList<>();
+
+        private final List<Pattern> excludes = new ArrayList<>();
+
+        private final List<Pattern> excludedDirectories = new ArrayList<>();
+
+        private final Map<Path, Long> directories = new ConcurrentHashMap<>();
+
+        private ResourceScanner(Path root, Resource resource) {
+            this.root = root;
+            for (String include : resource.getIncludes()) {
+                includes.add(Pattern.compile(toRegex(include)));
+            }
+            for (String exclude : resource.getExcludes()) {
+                excludes.add(Pattern.compile(toRegex(exclude)));
+                String normalized = exclude.replace('\\', '/');
+                if (normalized.equals("**")) {
+                    excludedDirectories.add(Pattern.compile(".*"));
+                } else if (normalized.endsWith("/**") || normalized.endsWith("/")) {
+                    String directory = normalized.substring(0, normalized.lastIndexOf('/'));
+                    excludedDirectories.add(Pattern.compile(toRegex(directory)));
+                }
+            }
+        }
+
+        private List<String> scan() {
+            if (isExcludedDirectory("")) {
+                return Collections.emptyList();
+            }
+
+            List<String> files = new ArrayList<>();
+            List<Path> subDirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+                directories.put(root, Files.getLastModifiedTime(root).toMillis());
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry)) {
+                        subDirectories.add(entry);
+                    } else if (Files.exists(entry) && isIncluded(entry.getFileName().toString())) {
+                        files.add(entry.getFileName().toString());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            subDirectories.parallelStream().map(this::walk).forEachOrdered(files::addAll);
+            return files;
+        }
+
+        private List<String> walk(Path directory) {
+            List<String> files = new ArrayList<>();
+            try {
+                Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                        new SimpleFileVisitor<Path>() {
+
+                            @Override
+                            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                                if (isExcludedDirectory(relativize(dir))) {
+                                    return FileVisitResult.SKIP_SUBTREE;
+                                }
+                                directories.put(dir, attrs.lastModifiedTime().toMillis());
+                                return FileVisitResult.CONTINUE;
+                            }
+
+                            @Override
+                            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                                String name = relativize(file);
+                                if (!attrs.isDirectory() && isIncluded(name)) {
+                                    files.add(name);
+                                }
+                                return FileVisitResult.CONTINUE;
+                            }
+
+                            @Override
+                            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                                // Unreadable entries and symbolic link cycles are skipped.
+                                return FileVisitResult.CONTINUE;
+                            }
+                        });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+            return files;
+        }
 
-            DirectoryScanner scanner = new DirectoryScanner();
-            scanner.setBasedir(fileBaseDir.getPath());
-            scanner.setIncludes(resource.getIncludes().toArray(new String[0]));
-            scanner.setExcludes(resource.getExcludes().toArray(new String[0]));
-            return scanner;
+        private String relativize(Path path) {
+            String name = root.relativize(path).toString();
+            return File.separatorChar == '/' ? name : name.replace(File.separatorChar, '/');
         }
 
-        throw new IllegalArgumentException();
+        private boolean isIncluded(String name) {
+            return matches(includes, name) && !matches(excludes, name);
+        }
+
+        private boolean isExcludedDirectory(String name) {
+            return matches(excludedDirectories, name);
+        }
+
+        private static boolean matches(List<Pattern> patterns, String name) {
+            for (Pattern pattern : patterns) {
+                if (pattern.matcher(name).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Scan result of a resource, with the modification time of the directories
+     * walked.
+     */
+    private static class ScanCache {
+
+        // Modification times closer than this to the scan may miss later changes.
+        private static final long TIMESTAMP_GRANULARITY = 2000;
+
+        private static List<String> read(File cacheFile) {
+            if (!cacheFile.isFile()) {
+                return null;
+            }
+            try {
+                List<String> lines = Files.readAllLines(cacheFile.toPath());
+                long scanTime = Long.parseLong(lines.get(0));
+                List<String> files = new ArrayList<>();
+                for (String line : lines.subList(1, lines.size())) {
+                    if (line.startsWith("f ")) {
+                        files.add(line.substring(2));
+                    } else if (line.startsWith("d ")) {
+                        int separator = line.indexOf(' ', 2);
+                        long modified = Long.parseLong(line.substring(2, separator));
+                        Path directory = new File(line.substring(separator + 1)).toPath();
+                        if (modified > scanTime - TIMESTAMP_GRANULARITY || !Files.isDirectory(directory)
+                                || Files.getLastModifiedTime(directory).toMillis() != modified) {
+                            return null;
+                        }
+                    }
+                }
+                return files;
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static void write(File cacheFile, long scanTime, Map<Path, Long> directories, List<String> files) {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.valueOf(scanTime));
+            directories.forEach((directory, modified) -> lines
+                    .add("d " + modified + " " + directory.toAbsolutePath().toString()));
+            for (String file : files) {
+                lines.add("f " + file);
+            }
+
+            try {
+                cacheFile.getAbsoluteFile().getParentFile().mkdirs();
+                Path temp = Files.createTempFile(cacheFile.getAbsoluteFile().getParentFile().toPath(),
+                        cacheFile.getName(), ".tmp");
+                Files.write(temp, lines);
+                Files.move(temp, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                // The cache is only an optimization, the next build scans again.
+            }
+        }
     }
 }
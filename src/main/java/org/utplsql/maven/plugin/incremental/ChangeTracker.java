@@ -0,0 +1,134 @@
+package org.utplsql.maven.plugin.incremental;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Content hashes of the project files, kept between builds in a properties
+ * file, used to find the files changed since the last successful run.
+ *
+ * The hash of a test file is suffixed with {@value #TEST_SUFFIX}, so a removed
+ * file can still be mapped with the options of the resource it came from.
+ */
+public class ChangeTracker {
+
+    private static final String TEST_SUFFIX = ",test";
+
+    private File file;
+
+    private File baseDir;
+
+    private Properties previousHashes = new Properties();
+
+    private Properties currentHashes = new Properties();
+
+    /**
+     * Loads the hashes of the last successful run from the given file, if it
+     * exists.
+     *
+     * @param file    the hash file
+     * @param baseDir the directory the file paths are relative to
+     * @throws IOException if the file cannot be read
+     */
+    public ChangeTracker(File file, File baseDir) throws IOException {
+        this.file = file;
+        this.baseDir = baseDir;
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                previousHashes.load(in);
+            }
+        }
+    }
+
+    /**
+     * Returns true if hashes of a previous run are available.
+     *
+     * @return true if a previous run was recorded
+     */
+    public boolean hasHistory() {
+        return !previousHashes.isEmpty();
+    }
+
+    /**
+     * Hashes the given files and returns the ones added, modified or removed since
+     * the last successful run.
+     *
+     * @param sourcePaths the source file paths, relative to the base directory
+     * @param testPaths   the test file paths, relative to the base directory
+     * @return the changed file paths
+     * @throws IOException if a file cannot be read
+     */
+    public Set<String> findChanges(Collection<String> sourcePaths, Collection<String> testPaths)
+            throws IOException {
+        Set<String> changes = new LinkedHashSet<>();
+        hashFiles(sourcePaths, "", changes);
+        hashFiles(testPaths, TEST_SUFFIX, changes);
+        for (String filePath : previousHashes.stringPropertyNames()) {
+            if (!currentHashes.containsKey(filePath)) {
+                changes.add(filePath);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the test files of the last successful run that no longer exist,
+     * once {@link #findChanges} has been called.
+     *
+     * @return the removed test file paths
+     */
+    public Set<String> getRemovedTests() {
+        Set<String> removedTests = new LinkedHashSet<>();
+        for (String filePath : previousHashes.stringPropertyNames()) {
+            if (!currentHashes.containsKey(filePath) && previousHashes.getProperty(filePath).endsWith(TEST_SUFFIX)) {
+                removedTests.add(filePath);
+            }
+        }
+        return removedTests;
+    }
+
+    /**
+     * Saves the hashes computed by the last call to {@link #findChanges}, to be
+     * called once the run has succeeded.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            currentHashes.store(out, "utPLSQL file hashes of the last successful run");
+        }
+    }
+
+    private void hashFiles(Collection<String> filePaths, String suffix, Set<String> changes) throws IOException {
+        for (String filePath : filePaths) {
+            String hash = hash(new File(baseDir, filePath)) + suffix;
+            currentHashes.setProperty(filePath, hash);
+            if (!hash.equals(previousHashes.getProperty(filePath))) {
+                changes.add(filePath);
+            }
+        }
+    }
+
+    private static String hash(File file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest(Files.readAllBytes(file.toPath()))) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.utplsql.maven.plugin.incremental;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Watches the project directories for created or modified files.
+ *
+ * A {@link WatchService} only watches a single directory, so every directory
+ * of the watched trees is registered, including the ones created later. The
+ * changes are reported once the files stop changing for a quiet period, so the
+ * several events of a single save are reported together.
+ */
+public class FileWatcher implements Closeable {
+
+    private static final Log LOG = new SystemStreamLog();
+
+    private final Path baseDir;
+
+    private final WatchService watchService;
+
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * Starts watching the given directories.
+     *
+     * @param baseDir     the directory the changed file paths are relative to
+     * @param directories the directories to watch, with their subdirectories
+     * @throws IOException if a directory cannot be watched
+     */
+    public FileWatcher(File baseDir, Collection<File> directories) throws IOException {
+        this.baseDir = baseDir.toPath().toAbsolutePath();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for (File directory : directories) {
+            registerTree(directory.toPath().toAbsolutePath(), null);
+        }
+    }
+
+    /**
+     * Waits for files to be created or modified, then for the quiet period to
+     * pass without any other change.
+     *
+     * @param quietMillis the quiet period, in milliseconds
+     * @return the changed file paths, '/' separated and relative to the base
+     *         directory
+     * @throws IOException          if a created directory cannot be watched
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Set<String> awaitChanges(long quietMillis) throws IOException, InterruptedException {
+        Set<String> changes = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            collect(key, changes);
+            key = watchService.poll(quietMillis, TimeUnit.MILLISECONDS);
+        }
+        return changes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void collect(WatchKey key, Set<String> changes) throws IOException {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                LOG.warn("Too many file changes at once, some of them may be missed");
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (Files.isDirectory(path)) {
+                if (event.kind() == ENTRY_CREATE) {
+                    // Files may be written to the new directory before it is watched.
+                    registerTree(path, changes);
+                }
+            } else if (Files.isRegularFile(path)) {
+                changes.add(toFilePath(path));
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    // Same form as the file paths given to utPLSQL by the resource scanner.
+    private String toFilePath(Path path) {
+        Path filePath = path.startsWith(baseDir) ? baseDir.relativize(path) : path;
+        return filePath.toString().replace(File.separatorChar, '/');
+    }
+
+    private void registerTree(Path root, Set<String> changes) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (changes != null && attrs.isRegularFile()) {
+                    changes.add(toFilePath(file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
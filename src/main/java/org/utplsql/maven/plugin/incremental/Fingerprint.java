@@ -0,0 +1,77 @@
+package org.utplsql.maven.plugin.incremental;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Incremental SHA-256 fingerprint of the inputs of a run.
+ */
+public class Fingerprint {
+
+    private MessageDigest digest;
+
+    /**
+     * Creates an empty fingerprint.
+     */
+    public Fingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds a named value to the fingerprint.
+     *
+     * @param name  the name of the value
+     * @param value the value, may be null
+     * @return this fingerprint
+     */
+    public Fingerprint add(String name, Object value) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '=');
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        return this;
+    }
+
+    /**
+     * Adds the path and the content of a file to the fingerprint.
+     *
+     * @param path the file path, as given to utPLSQL
+     * @param file the file
+     * @return this fingerprint
+     * @throws IOException if the file cannot be read
+     */
+    public Fingerprint addFile(String path, File file) throws IOException {
+        add("file", path);
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update((byte) '\n');
+        return this;
+    }
+
+    /**
+     * Returns the fingerprint as an hexadecimal string. The fingerprint cannot be
+     * extended afterwards.
+     */
+    @Override
+    public String toString() {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
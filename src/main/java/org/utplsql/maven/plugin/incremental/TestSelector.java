@@ -0,0 +1,145 @@
+package org.utplsql.maven.plugin.incremental;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.maven.plugin.helper.ObjectMappingHelper;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Selects the test packages affected by a set of changed files.
+ *
+ * Changed files are mapped to the objects they define with the source and test
+ * mapping options. A test package is affected if it has changed itself or if it
+ * depends, directly or not, on a changed object according to
+ * {@code ALL_DEPENDENCIES}.
+ */
+public class TestSelector {
+
+    private static final String DEPENDENTS_QUERY = "select distinct owner, name from all_dependencies "
+            + "start with referenced_owner = ? and referenced_name = ? "
+            + "connect by nocycle prior owner = referenced_owner and prior name = referenced_name";
+
+    private FileMapperOptions sourceMappingOptions;
+
+    private FileMapperOptions testMappingOptions;
+
+    private String defaultOwner;
+
+    private Set<DatabaseObject> changedSources = new LinkedHashSet<>();
+
+    private List<String> testPaths = new ArrayList<>();
+
+    /**
+     * Constructor of the test selector.
+     *
+     * @param sourceMappingOptions the source mapping options
+     * @param testMappingOptions   the test mapping options
+     * @param defaultOwner         the owner of objects the options do not map to
+     *                             an owner
+     */
+    public TestSelector(FileMapperOptions sourceMappingOptions, FileMapperOptions testMappingOptions,
+            String defaultOwner) {
+        this.sourceMappingOptions = sourceMappingOptions;
+        this.testMappingOptions = testMappingOptions;
+        this.defaultOwner = defaultOwner;
+    }
+
+    /**
+     * Selects the test packages affected by the changed files.
+     *
+     * @param connection   the database connection
+     * @param changedFiles the changed file paths
+     * @throws SQLException if the dependencies cannot be read
+     */
+    public void select(Connection connection, Collection<String> changedFiles) throws SQLException {
+        select(connection, changedFiles, Collections.emptySet());
+    }
+
+    /**
+     * Selects the test packages affected by the changed files, some of them
+     * being test files that no longer exist.
+     *
+     * @param connection   the database connection
+     * @param changedFiles the changed file paths
+     * @param removedTests the removed test file paths
+     * @throws SQLException if the dependencies cannot be read
+     */
+    public void select(Connection connection, Collection<String> changedFiles, Collection<String> removedTests)
+            throws SQLException {
+        Set<DatabaseObject> testObjects = mapFiles(testMappingOptions.getFilePaths(), testMappingOptions);
+        Set<String> testFiles = new HashSet<>(testMappingOptions.getFilePaths());
+        testFiles.addAll(removedTests);
+
+        Set<DatabaseObject> changedObjects = new LinkedHashSet<>();
+        for (String changedFile : changedFiles) {
+            boolean test = testFiles.contains(changedFile);
+            DatabaseObject object = ObjectMappingHelper.toDatabaseObject(changedFile,
+                    test ? testMappingOptions : sourceMappingOptions, defaultOwner);
+            if (object != null) {
+                changedObjects.add(object);
+                if (!test) {
+                    changedSources.add(object);
+                }
+            }
+        }
+
+        Set<DatabaseObject> affected = new HashSet<>(changedObjects);
+        try (PreparedStatement stmt = connection.prepareStatement(DEPENDENTS_QUERY)) {
+            for (DatabaseObject object : changedObjects) {
+                stmt.setString(1, object.getOwner());
+                stmt.setString(2, object.getName());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        affected.add(new DatabaseObject(rs.getString(1), rs.getString(2), null));
+                    }
+                }
+            }
+        }
+
+        for (DatabaseObject testObject : testObjects) {
+            if (affected.contains(testObject)) {
+                testPaths.add(testObject.toString());
+            }
+        }
+    }
+
+    /**
+     * Returns the source objects defined by the changed files.
+     *
+     * @return the changed source objects
+     */
+    public Set<DatabaseObject> getChangedSources() {
+        return changedSources;
+    }
+
+    /**
+     * Returns the paths of the affected test packages, {@code owner.package}.
+     *
+     * @return the affected test paths
+     */
+    public List<String> getTestPaths() {
+        return testPaths;
+    }
+
+    private Set<DatabaseObject> mapFiles(List<String> filePaths, FileMapperOptions options) {
+        Set<DatabaseObject> objects = new LinkedHashSet<>();
+        for (String filePath : filePaths) {
+            DatabaseObject object = ObjectMappingHelper.toDatabaseObject(filePath, options, defaultOwner);
+            if (object != null) {
+                objects.add(object);
+            }
+        }
+        return objects;
+    }
+}
@@ -0,0 +1,165 @@
+package org.utplsql.maven.plugin.incremental;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprint of the last successful run and copies of the reports it wrote,
+ * kept between builds to skip a run whose inputs have not changed.
+ *
+ * A report written as a directory of files is cached and restored as a whole.
+ */
+public class UpToDateCheck {
+
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static final String REPORT = "report.";
+
+    private File cacheDirectory;
+
+    private File stateFile;
+
+    private Properties state = new Properties();
+
+    /**
+     * Loads the state of the last successful run from the given directory, if it
+     * exists.
+     *
+     * @param cacheDirectory the cache directory
+     * @throws IOException if the state cannot be read
+     */
+    public UpToDateCheck(File cacheDirectory) throws IOException {
+        this.cacheDirectory = cacheDirectory;
+        this.stateFile = new File(cacheDirectory, "state.properties");
+        if (stateFile.isFile()) {
+            try (InputStream in = Files.newInputStream(stateFile.toPath())) {
+                state.load(in);
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the given schemas: the number of objects, the number of
+     * invalid objects and the last DDL time.
+     *
+     * @param connection the database connection
+     * @param owners     the schemas
+     * @return the state of the schemas
+     * @throws SQLException if the state cannot be read
+     */
+    public static String getSchemaState(Connection connection, Collection<String> owners) throws SQLException {
+        String query = "select count(*), sum(decode(status, 'VALID', 0, 1)), "
+                + "to_char(max(last_ddl_time), 'YYYY-MM-DD HH24:MI:SS') from all_objects where owner in ("
+                + String.join(", ", Collections.nCopies(owners.size(), "?")) + ")";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            for (String owner : owners) {
+                stmt.setString(index++, owner);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1) + "|" + rs.getLong(2) + "|" + rs.getString(3);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the last successful run had the same fingerprint and wrote
+     * the same reports, all of them still being cached.
+     *
+     * @param fingerprint the fingerprint of the run
+     * @param reports     the report files of the run
+     * @return true if the run can be skipped
+     */
+    public boolean isUpToDate(String fingerprint, List<File> reports) {
+        if (!fingerprint.equals(state.getProperty(FINGERPRINT))) {
+            return false;
+        }
+        for (int i = 0; i < reports.size(); i++) {
+            if (!reports.get(i).getAbsolutePath().equals(state.getProperty(REPORT + i))
+                    || !new File(cacheDirectory, String.valueOf(i)).exists()) {
+                return false;
+            }
+        }
+        return state.getProperty(REPORT + reports.size()) == null;
+    }
+
+    /**
+     * Restores the cached reports.
+     *
+     * @param reports the report files of the run
+     * @throws IOException if a report cannot be restored
+     */
+    public void restoreReports(List<File> reports) throws IOException {
+        for (int i = 0; i < reports.size(); i++) {
+            File report = reports.get(i);
+            report.getAbsoluteFile().getParentFile().mkdirs();
+            copy(new File(cacheDirectory, String.valueOf(i)).toPath(), report.toPath());
+        }
+    }
+
+    /**
+     * Records a successful run, caching the reports it wrote.
+     *
+     * @param fingerprint the fingerprint of the run
+     * @param reports     the report files of the run
+     * @throws IOException if the state or a report cannot be saved
+     */
+    public void save(String fingerprint, List<File> reports) throws IOException {
+        cacheDirectory.mkdirs();
+        Properties newState = new Properties();
+        for (int i = 0; i < reports.size(); i++) {
+            File report = reports.get(i);
+            File cached = new File(cacheDirectory, String.valueOf(i));
+            if (report.exists()) {
+                copy(report.toPath(), cached.toPath());
+            } else {
+                delete(cached.toPath());
+            }
+            newState.setProperty(REPORT + i, report.getAbsolutePath());
+        }
+        newState.setProperty(FINGERPRINT, fingerprint);
+
+        try (OutputStream out = Files.newOutputStream(stateFile.toPath())) {
+            newState.store(out, "utPLSQL last successful run");
+        }
+        state = newState;
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        delete(target);
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.copy(path, target.resolve(source.relativize(path).toString()),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> paths = Files.walk(path)) {
+                for (Path child : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(child);
+                }
+            }
+        } else {
+            Files.deleteIfExists(path);
+        }
+    }
+}
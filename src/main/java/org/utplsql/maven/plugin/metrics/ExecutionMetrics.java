@@ -0,0 +1,165 @@
+package org.utplsql.maven.plugin.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timings of the phases and counters of a plugin execution.
+ *
+ * Phases are timed in the order they start; timing a phase again adds to its
+ * time. Counters are safe to update from several threads.
+ */
+public class ExecutionMetrics {
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param phase the phase name
+     * @return the timer, to stop at the end of the phase
+     */
+    public Timer start(String phase) {
+        return new Timer(phase);
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter the counter name
+     * @param value   the value to add
+     */
+    public void add(String counter, long value) {
+        counters.computeIfAbsent(counter, c -> new AtomicLong()).addAndGet(value);
+    }
+
+    /**
+     * Returns the time spent in each phase, in milliseconds.
+     *
+     * @return the phase times, in start order
+     */
+    public Map<String, Long> getPhases() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    /**
+     * Returns the value of a counter.
+     *
+     * @param counter the counter name
+     * @return the value, or null if never set
+     */
+    public Long getCounter(String counter) {
+        AtomicLong value = counters.get(counter);
+        return value == null ? null : value.get();
+    }
+
+    /**
+     * Returns a one line summary of the phase times.
+     *
+     * @return the summary
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        getPhases().forEach((phase, time) -> summary.append(summary.length() == 0 ? "" : ", ").append(phase)
+                .append(' ').append(time).append(" ms"));
+        return summary.toString();
+    }
+
+    /**
+     * Writes the metrics as a JSON document.
+     *
+     * @param file the JSON file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(File file) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"startTime\": ").append(startTime).append(",\n");
+        json.append("  \"totalMillis\": ").append(System.currentTimeMillis() - startTime).append(",\n");
+        json.append("  \"phases\": {");
+        appendJson(json, getPhases());
+        json.append("},\n  \"counters\": {");
+        appendJson(json, getCounters());
+        json.append("}\n}\n");
+        write(file, json.toString());
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     *
+     * @param file the metrics file
+     * @throws IOException if the file cannot be written
+     */
+    public void writePrometheus(File file) throws IOException {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP utplsql_phase_seconds Time spent in each phase of the plugin execution.\n");
+        text.append("# TYPE utplsql_phase_seconds gauge\n");
+        getPhases().forEach((phase, time) -> text.append("utplsql_phase_seconds{phase=\"").append(phase)
+                .append("\"} ").append(time / 1000.0).append('\n'));
+        for (Map.Entry<String, Long> counter : getCounters().entrySet()) {
+            String name = "utplsql_" + counter.getKey().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+            text.append("# TYPE ").append(name).append(" gauge\n");
+            text.append(name).append(' ').append(counter.getValue()).append('\n');
+        }
+        write(file, text.toString());
+    }
+
+    private Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((counter, value) -> values.put(counter, value.get()));
+        return values;
+    }
+
+    private static void appendJson(StringBuilder json, Map<String, Long> values) {
+        String separator = "\n";
+        for (Map.Entry<String, Long> value : values.entrySet()) {
+            json.append(separator).append("    \"").append(value.getKey()).append("\": ").append(value.getValue());
+            separator = ",\n";
+        }
+        if (!values.isEmpty()) {
+            json.append("\n  ");
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+
+    /**
+     * Timer of a phase.
+     */
+    public class Timer {
+
+        private final String phase;
+
+        private final long start = System.currentTimeMillis();
+
+        private Timer(String phase) {
+            this.phase = phase;
+        }
+
+        /**
+         * Stops the timer, adding the elapsed time to the phase.
+         */
+        public void stop() {
+            phases.merge(phase, System.currentTimeMillis() - start, Long::sum);
+        }
+    }
+}
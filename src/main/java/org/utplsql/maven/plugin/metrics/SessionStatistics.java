@@ -0,0 +1,44 @@
+package org.utplsql.maven.plugin.metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the statistics of the current database session.
+ */
+public class SessionStatistics {
+
+    /**
+     * Name of the round trips statistic.
+     */
+    public static final String ROUND_TRIPS = "SQL*Net roundtrips to/from client";
+
+    private static final String STATISTIC_QUERY = "select m.value from v$mystat m "
+            + "join v$statname n on n.statistic# = m.statistic# where n.name = ?";
+
+    private SessionStatistics() {
+        // NA
+    }
+
+    /**
+     * Returns the value of a statistic of the current session.
+     *
+     * @param connection the database connection
+     * @param statistic  the statistic name
+     * @return the value, or null if the session statistics cannot be read, which
+     *         needs the select privilege on {@code V$MYSTAT} and
+     *         {@code V$STATNAME}
+     */
+    public static Long getStatistic(Connection connection, String statistic) {
+        try (PreparedStatement stmt = connection.prepareStatement(STATISTIC_QUERY)) {
+            stmt.setString(1, statistic);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.utplsql.maven.plugin.model;
+
+import java.util.Objects;
+
+/**
+ * Represents a database object a project file is mapped to.
+ */
+public class DatabaseObject {
+
+    private final String owner;
+    private final String name;
+    private final String type;
+
+    /**
+     * Creates a new database object.
+     *
+     * @param owner the object owner
+     * @param name  the object name
+     * @param type  the object type, may be null if unknown
+     */
+    public DatabaseObject(String owner, String name, String type) {
+        this.owner = owner;
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Returns the object owner.
+     *
+     * @return the object owner
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Returns the object name.
+     *
+     * @return the object name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the object type.
+     *
+     * @return the object type, null if unknown
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Two database objects are equal if they have the same owner and name, the
+     * specification and the body of a package being the same object.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DatabaseObject)) {
+            return false;
+        }
+        DatabaseObject other = (DatabaseObject) obj;
+        return Objects.equals(owner, other.owner) && Objects.equals(name, other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(owner, name);
+    }
+
+    /**
+     * Returns the object as a test path, {@code owner.name}.
+     */
+    @Override
+    public String toString() {
+        return owner == null ? name : owner + "." + name;
+    }
+}
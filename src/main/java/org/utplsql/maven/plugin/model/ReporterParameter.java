@@ -9,6 +9,7 @@ import org.codehaus.plexus.util.StringUtils;
  *     <name>...</name>
  *     <fileOutput>...</fileOutput>
  *     <consoleOutput>...</consoleOutput>
+ *     <compression>...</compression>
  * </reporter>
  * }
  * 
@@ -19,6 +20,7 @@ public class ReporterParameter {
     private String name;
     private String fileOutput;
     private Boolean consoleOutput;
+    private String compression;
 
     /**
      * Creates a new reporter parameter.
@@ -98,4 +100,22 @@ public class ReporterParameter {
     public void setConsoleOutput(boolean consoleOutput) {
         this.consoleOutput = consoleOutput;
     }
+
+    /**
+     * Returns the compression of the file output.
+     * 
+     * @return the compression name: none, gzip or zstd; null if not compressed
+     */
+    public String getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sets the compression of the file output.
+     * 
+     * @param compression the compression name: none, gzip or zstd
+     */
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
 }
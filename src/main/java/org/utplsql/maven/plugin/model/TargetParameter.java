@@ -0,0 +1,123 @@
+package org.utplsql.maven.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a target database or schema parameter in the pom file. The
+ * connection settings not given are taken from the plugin configuration.
+ * {@code
+ * <target>
+ *     <name>...</name>
+ *     <dbUrl>...</dbUrl>
+ *     <dbUser>...</dbUser>
+ *     <dbPass>...</dbPass>
+ *     <paths>...</paths>
+ * </target>
+ * }
+ */
+public class TargetParameter {
+
+    private String name;
+    private String dbUrl;
+    private String dbUser;
+    private String dbPass;
+    private List<String> paths = new ArrayList<>();
+
+    /**
+     * Creates a new target parameter.
+     */
+    public TargetParameter() {
+        super();
+    }
+
+    /**
+     * Returns the target name, naming its report directory.
+     *
+     * @return the target name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the target name.
+     *
+     * @param name the target name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the database URL.
+     *
+     * @return the database URL, null to use the plugin one
+     */
+    public String getDbUrl() {
+        return dbUrl;
+    }
+
+    /**
+     * Sets the database URL.
+     *
+     * @param dbUrl the database URL
+     */
+    public void setDbUrl(String dbUrl) {
+        this.dbUrl = dbUrl;
+    }
+
+    /**
+     * Returns the database user.
+     *
+     * @return the database user, null to use the plugin one
+     */
+    public String getDbUser() {
+        return dbUser;
+    }
+
+    /**
+     * Sets the database user.
+     *
+     * @param dbUser the database user
+     */
+    public void setDbUser(String dbUser) {
+        this.dbUser = dbUser;
+    }
+
+    /**
+     * Returns the database password.
+     *
+     * @return the database password, null to use the plugin one
+     */
+    public String getDbPass() {
+        return dbPass;
+    }
+
+    /**
+     * Sets the database password.
+     *
+     * @param dbPass the database password
+     */
+    public void setDbPass(String dbPass) {
+        this.dbPass = dbPass;
+    }
+
+    /**
+     * Returns the test paths of the target.
+     *
+     * @return the test paths, empty to use the plugin ones
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Sets the test paths of the target.
+     *
+     * @param paths the test paths
+     */
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+}
@@ -0,0 +1,231 @@
+package org.utplsql.maven.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the result of a test, as described by the events of the utPLSQL
+ * realtime reporter.
+ */
+public class TestResult {
+
+    /**
+     * Outcome of a test.
+     */
+    public enum Status {
+        SUCCESS, FAILURE, ERROR, DISABLED
+    }
+
+    private final String id;
+    private String suiteId;
+    private String ownerName;
+    private String objectName;
+    private String procedureName;
+    private String description;
+    private double executionTime;
+    private Status status = Status.SUCCESS;
+    private final List<String> failures = new ArrayList<>();
+    private String errorStack;
+    private String serverOutput;
+
+    /**
+     * Creates a new test result.
+     *
+     * @param id the test id, its suite path
+     */
+    public TestResult(String id) {
+        this.id = id;
+        int dot = id.lastIndexOf('.');
+        this.suiteId = dot < 0 ? id : id.substring(0, dot);
+    }
+
+    /**
+     * Returns the test id, its suite path.
+     *
+     * @return the test id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the id of the suite or context directly containing the test.
+     *
+     * @return the suite id
+     */
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    /**
+     * Sets the id of the suite or context directly containing the test.
+     *
+     * @param suiteId the suite id
+     */
+    public void setSuiteId(String suiteId) {
+        this.suiteId = suiteId;
+    }
+
+    /**
+     * Returns the owner of the test package.
+     *
+     * @return the owner name
+     */
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    /**
+     * Sets the owner of the test package.
+     *
+     * @param ownerName the owner name
+     */
+    public void setOwnerName(String ownerName) {
+        this.ownerName = ownerName;
+    }
+
+    /**
+     * Returns the test package name.
+     *
+     * @return the object name
+     */
+    public String getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Sets the test package name.
+     *
+     * @param objectName the object name
+     */
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    /**
+     * Returns the test procedure name.
+     *
+     * @return the procedure name
+     */
+    public String getProcedureName() {
+        return procedureName;
+    }
+
+    /**
+     * Sets the test procedure name.
+     *
+     * @param procedureName the procedure name
+     */
+    public void setProcedureName(String procedureName) {
+        this.procedureName = procedureName;
+    }
+
+    /**
+     * Returns the test description.
+     *
+     * @return the description, may be null
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Sets the test description.
+     *
+     * @param description the description
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Returns the name of the test, its procedure name or the last element of its
+     * id.
+     *
+     * @return the test name
+     */
+    public String getName() {
+        return procedureName != null ? procedureName : id.substring(id.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Returns the execution time.
+     *
+     * @return the execution time, in seconds
+     */
+    public double getExecutionTime() {
+        return executionTime;
+    }
+
+    /**
+     * Sets the execution time.
+     *
+     * @param executionTime the execution time, in seconds
+     */
+    public void setExecutionTime(double executionTime) {
+        this.executionTime = executionTime;
+    }
+
+    /**
+     * Returns the test outcome.
+     *
+     * @return the status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the test outcome.
+     *
+     * @param status the status
+     */
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Returns the messages of the failed expectations.
+     *
+     * @return the failure messages, empty if none failed
+     */
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the error stack.
+     *
+     * @return the error stack, null if the test did not raise an error
+     */
+    public String getErrorStack() {
+        return errorStack;
+    }
+
+    /**
+     * Sets the error stack.
+     *
+     * @param errorStack the error stack
+     */
+    public void setErrorStack(String errorStack) {
+        this.errorStack = errorStack;
+    }
+
+    /**
+     * Returns the server output of the test.
+     *
+     * @return the server output, may be null
+     */
+    public String getServerOutput() {
+        return serverOutput;
+    }
+
+    /**
+     * Sets the server output of the test.
+     *
+     * @param serverOutput the server output
+     */
+    public void setServerOutput(String serverOutput) {
+        this.serverOutput = serverOutput;
+    }
+}
@@ -0,0 +1,133 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Compression of the report files, applied while the report is written.
+ *
+ * Zstandard compression needs zstd-jni ({@code com.github.luben:zstd-jni}) on
+ * the plugin classpath; without it, reports are compressed with gzip.
+ */
+public enum Compression {
+
+    /**
+     * No compression.
+     */
+    NONE(""),
+
+    /**
+     * Gzip compression, the file name gets a {@code .gz} extension.
+     */
+    GZIP(".gz"),
+
+    /**
+     * Zstandard compression, the file name gets a {@code .zst} extension.
+     */
+    ZSTD(".zst");
+
+    private static final Log LOG = new SystemStreamLog();
+
+    private static final String ZSTD_OUTPUT_STREAM = "com.github.luben.zstd.ZstdOutputStream";
+
+    private static volatile boolean zstdWarned;
+
+    private final String extension;
+
+    Compression(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the compression of the given name.
+     *
+     * @param name the compression name: none, gzip or zstd; null means none
+     * @return the compression
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Compression of(String name) {
+        if (StringUtils.isBlank(name)) {
+            return NONE;
+        }
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+        case "none":
+            return NONE;
+        case "gz":
+        case "gzip":
+            return GZIP;
+        case "zst":
+        case "zstd":
+            if (isZstdAvailable()) {
+                return ZSTD;
+            }
+            if (!zstdWarned) {
+                zstdWarned = true;
+                LOG.warn("zstd-jni is not on the plugin classpath, compressing the reports with gzip");
+            }
+            return GZIP;
+        default:
+            throw new IllegalArgumentException("Unknown report compression " + name + ", use none, gzip or zstd");
+        }
+    }
+
+    /**
+     * Returns true if Zstandard compression is available.
+     *
+     * @return true if zstd-jni is on the classpath
+     */
+    public static boolean isZstdAvailable() {
+        try {
+            Class.forName(ZSTD_OUTPUT_STREAM, false, Compression.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the compressed file name of a report file.
+     *
+     * @param file the report file
+     * @return the file with the compression extension, unless it already has it
+     */
+    public File apply(File file) {
+        if (extension.isEmpty() || file.getName().endsWith(extension)) {
+            return file;
+        }
+        return new File(file.getPath() + extension);
+    }
+
+    /**
+     * Wraps a stream into a compressing stream.
+     *
+     * @param out the stream receiving the compressed data
+     * @return the stream to write the uncompressed data to
+     * @throws IOException if the compressor cannot be created
+     */
+    public OutputStream wrap(OutputStream out) throws IOException {
+        switch (this) {
+        case GZIP:
+            return new GZIPOutputStream(out, ReportSink.BUFFER_SIZE);
+        case ZSTD:
+            try {
+                Constructor<?> constructor = Class.forName(ZSTD_OUTPUT_STREAM).getConstructor(OutputStream.class);
+                return (OutputStream) constructor.newInstance(out);
+            } catch (InvocationTargetException e) {
+                throw new IOException("Unable to create the zstd compressor", e.getCause());
+            } catch (ReflectiveOperationException | LinkageError e) {
+                throw new IOException("Unable to create the zstd compressor", e);
+            }
+        default:
+            return out;
+        }
+    }
+}
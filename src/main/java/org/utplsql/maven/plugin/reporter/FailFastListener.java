@@ -0,0 +1,105 @@
+package org.utplsql.maven.plugin.reporter;
+
+import static java.lang.String.format;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.utplsql.maven.plugin.model.TestResult;
+
+import oracle.jdbc.OracleConnection;
+
+/**
+ * Stops the run once a number of tests have failed.
+ *
+ * The listener counts the failing tests of the realtime reporter events, as they
+ * are gathered while the tests are running. When the threshold is reached, the
+ * statement running the tests on each watched session is cancelled, so the run
+ * ends without waiting for the remaining tests. The counter is shared by all
+ * the sessions of a parallel run.
+ */
+public class FailFastListener implements TestEventListener {
+
+    private static final Log LOG = new SystemStreamLog();
+
+    private final int threshold;
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private final List<Connection> sessions = new CopyOnWriteArrayList<>();
+
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new listener.
+     *
+     * @param threshold the number of failing tests stopping the run, at least 1
+     */
+    public FailFastListener(int threshold) {
+        this.threshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Watches a session running tests, cancelled when the run is stopped.
+     *
+     * @param connection the session running the tests
+     */
+    public void watch(Connection connection) {
+        sessions.add(connection);
+        if (stopped) {
+            cancel(connection);
+        }
+    }
+
+    /**
+     * Stops watching a session, once its tests have run.
+     *
+     * @param connection the session
+     */
+    public void unwatch(Connection connection) {
+        sessions.remove(connection);
+    }
+
+    /**
+     * Returns true if the threshold was reached and the run stopped.
+     *
+     * @return true if the run was stopped
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Returns the number of failing tests seen so far.
+     *
+     * @return the number of failed or errored tests
+     */
+    public int getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public void testFinished(TestResult test) {
+        if (test.getStatus() != TestResult.Status.FAILURE && test.getStatus() != TestResult.Status.ERROR) {
+            return;
+        }
+        if (failures.incrementAndGet() == threshold) {
+            LOG.warn(format("%d failing tests, the last one being %s: stopping the run", threshold, test.getId()));
+            stopped = true;
+            sessions.forEach(FailFastListener::cancel);
+        }
+    }
+
+    private static void cancel(Connection connection) {
+        try {
+            connection.unwrap(OracleConnection.class).cancel();
+        } catch (SQLException e) {
+            LOG.warn("Unable to cancel the test run: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.utplsql.maven.plugin.model.TestResult;
+
+/**
+ * Writes the test events as a JUnit XML report, one {@code testsuite} element
+ * per suite or context holding tests.
+ *
+ * A suite is written as soon as it has finished, so only the results of the
+ * suites still running are kept in memory.
+ */
+public class JUnitEventWriter extends XmlEventWriter {
+
+    private final Map<String, List<TestResult>> suites = new LinkedHashMap<>();
+
+    private boolean started;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param out the stream receiving the report, not closed by the writer
+     */
+    public JUnitEventWriter(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void testFinished(TestResult test) {
+        suites.computeIfAbsent(test.getSuiteId(), id -> new ArrayList<>()).add(test);
+    }
+
+    @Override
+    public void suiteFinished(String suiteId, String description, double executionTime) throws IOException {
+        List<TestResult> tests = suites.remove(suiteId);
+        if (tests != null) {
+            try {
+                writeSuite(suiteId, tests, executionTime);
+            } catch (XMLStreamException e) {
+                throw toIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void runFinished(double executionTime) throws IOException {
+        try {
+            // Suites whose end was not reported, if the run was interrupted.
+            for (Map.Entry<String, List<TestResult>> suite : suites.entrySet()) {
+                writeSuite(suite.getKey(), suite.getValue(), suite.getValue().stream()
+                        .mapToDouble(TestResult::getExecutionTime).sum());
+            }
+            suites.clear();
+
+            startTestSuites();
+            endDocument();
+        } catch (XMLStreamException e) {
+            throw toIOException(e);
+        }
+    }
+
+    private void startTestSuites() throws XMLStreamException {
+        if (!started) {
+            getWriter().writeStartElement("testsuites");
+            started = true;
+        }
+    }
+
+    private void writeSuite(String suiteId, List<TestResult> tests, double executionTime)
+            throws XMLStreamException {
+        startTestSuites();
+        XMLStreamWriter writer = getWriter();
+
+        writer.writeCharacters("\n");
+        writer.writeStartElement("testsuite");
+        writeAttribute("name", suiteId);
+        writeAttribute("tests", tests.size());
+        writeAttribute("failures", count(tests, TestResult.Status.FAILURE));
+        writeAttribute("errors", count(tests, TestResult.Status.ERROR));
+        writeAttribute("skipped", count(tests, TestResult.Status.DISABLED));
+        writeAttribute("time", formatSeconds(executionTime));
+
+        for (TestResult test : tests) {
+            writeTestCase(writer, suiteId, test);
+        }
+        writer.writeCharacters("\n");
+        writer.writeEndElement();
+    }
+
+    private static long count(List<TestResult> tests, TestResult.Status status) {
+        return tests.stream().filter(test -> test.getStatus() == status).count();
+    }
+}
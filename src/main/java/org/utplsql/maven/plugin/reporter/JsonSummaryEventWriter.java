@@ -0,0 +1,112 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.utplsql.maven.plugin.model.TestResult;
+import org.utplsql.maven.plugin.model.TestResult.Status;
+
+/**
+ * Writes a JSON summary of the run: the number of tests per status, the run
+ * time and the tests that did not succeed.
+ */
+public class JsonSummaryEventWriter implements TestEventListener {
+
+    private final OutputStream out;
+
+    private final Map<Status, Long> counts = new EnumMap<>(Status.class);
+
+    private final List<TestResult> unsuccessful = new ArrayList<>();
+
+    /**
+     * Creates a new writer.
+     *
+     * @param out the stream receiving the summary, not closed by the writer
+     */
+    public JsonSummaryEventWriter(OutputStream out) {
+        this.out = out;
+        for (Status status : Status.values()) {
+            counts.put(status, 0L);
+        }
+    }
+
+    @Override
+    public void testFinished(TestResult test) {
+        counts.merge(test.getStatus(), 1L, Long::sum);
+        if (test.getStatus() == Status.FAILURE || test.getStatus() == Status.ERROR) {
+            unsuccessful.add(test);
+        }
+    }
+
+    @Override
+    public void runFinished(double executionTime) throws IOException {
+        long tests = counts.values().stream().mapToLong(Long::longValue).sum();
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"tests\": ").append(tests).append(",\n");
+        json.append("  \"success\": ").append(counts.get(Status.SUCCESS)).append(",\n");
+        json.append("  \"failures\": ").append(counts.get(Status.FAILURE)).append(",\n");
+        json.append("  \"errors\": ").append(counts.get(Status.ERROR)).append(",\n");
+        json.append("  \"disabled\": ").append(counts.get(Status.DISABLED)).append(",\n");
+        json.append("  \"time\": ").append(XmlEventWriter.formatSeconds(executionTime)).append(",\n");
+        json.append("  \"failed\": [");
+        String separator = "\n    ";
+        for (TestResult test : unsuccessful) {
+            String message = test.getStatus() == Status.ERROR ? test.getErrorStack()
+                    : String.join("\n", test.getFailures());
+            json.append(separator).append("{\"id\": ").append(quote(test.getId()));
+            json.append(", \"status\": ").append(quote(test.getStatus().name()));
+            json.append(", \"message\": ").append(quote(message)).append('}');
+            separator = ",\n    ";
+        }
+        if (!unsuccessful.isEmpty()) {
+            json.append("\n  ");
+        }
+        json.append("]\n}\n");
+        unsuccessful.clear();
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write(json.toString());
+        writer.flush();
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+            case '"':
+                quoted.append("\\\"");
+                break;
+            case '\\':
+                quoted.append("\\\\");
+                break;
+            case '\n':
+                quoted.append("\\n");
+                break;
+            case '\r':
+                quoted.append("\\r");
+                break;
+            case '\t':
+                quoted.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    quoted.append(String.format("\\u%04x", (int) c));
+                } else {
+                    quoted.append(c);
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
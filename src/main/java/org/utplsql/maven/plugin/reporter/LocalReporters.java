@@ -0,0 +1,110 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+/**
+ * Reporters rendered on the Java side.
+ *
+ * All of them are fed by a single utPLSQL realtime reporter, so the database
+ * produces and ships the test events once however many of these reports are
+ * written.
+ */
+public enum LocalReporters {
+
+    /**
+     * JUnit XML report.
+     */
+    LOCAL_JUNIT_REPORTER {
+        @Override
+        public TestEventListener createListener(OutputStream out, Map<DatabaseObject, String> testFiles) {
+            return new JUnitEventWriter(out);
+        }
+    },
+
+    /**
+     * SonarQube generic test execution report.
+     */
+    LOCAL_SONAR_TEST_REPORTER {
+        @Override
+        public TestEventListener createListener(OutputStream out, Map<DatabaseObject, String> testFiles) {
+            return new SonarTestEventWriter(out, testFiles);
+        }
+    },
+
+    /**
+     * Surefire reports, one {@code TEST-<suite>.xml} file per suite in the
+     * directory given as file output. The console gets a summary line per suite.
+     */
+    LOCAL_SUREFIRE_REPORTER {
+        @Override
+        public TestEventListener createListener(OutputStream out, Map<DatabaseObject, String> testFiles) {
+            return new SurefireEventWriter(null, out);
+        }
+
+        @Override
+        public TestEventListener createDirectoryListener(File directory, Map<DatabaseObject, String> testFiles) {
+            return new SurefireEventWriter(directory, null);
+        }
+    },
+
+    /**
+     * JSON summary of the run.
+     */
+    LOCAL_JSON_SUMMARY_REPORTER {
+        @Override
+        public TestEventListener createListener(OutputStream out, Map<DatabaseObject, String> testFiles) {
+            return new JsonSummaryEventWriter(out);
+        }
+    };
+
+    /**
+     * Creates the listener writing the report.
+     *
+     * @param out       the stream receiving the report
+     * @param testFiles the test files, by the database object they define
+     * @return the listener
+     */
+    public abstract TestEventListener createListener(OutputStream out, Map<DatabaseObject, String> testFiles);
+
+    /**
+     * Creates the listener writing the report as several files, for the
+     * reporters whose file output is a directory.
+     *
+     * @param directory the directory receiving the report files
+     * @param testFiles the test files, by the database object they define
+     * @return the listener, or null if the reporter writes a single file
+     */
+    public TestEventListener createDirectoryListener(File directory, Map<DatabaseObject, String> testFiles) {
+        return null;
+    }
+
+    /**
+     * Returns true if a reporter is rendered on the Java side.
+     *
+     * @param name the reporter name
+     * @return true if the reporter is one of these reporters
+     */
+    public static boolean isLocal(String name) {
+        for (LocalReporters reporter : values()) {
+            if (reporter.name().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the reporter of a name, ignoring the case.
+     *
+     * @param name the reporter name
+     * @return the reporter
+     */
+    public static LocalReporters of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
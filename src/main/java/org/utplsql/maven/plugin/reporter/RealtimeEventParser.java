@@ -0,0 +1,404 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.utplsql.maven.plugin.model.TestResult;
+import org.utplsql.maven.plugin.model.TestResult.Status;
+
+/**
+ * Parses the output of the utPLSQL realtime reporter and forwards its test
+ * events to Java side listeners.
+ *
+ * The realtime reporter prints one XML document per event. The output is
+ * accumulated until the closing {@code </event>} line, then the event is parsed
+ * with a StAX reader and discarded, so only the test descriptions announced by
+ * the {@code pre-run} event are kept until their test has finished.
+ */
+public class RealtimeEventParser extends OutputStream {
+
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private static final String EVENT_END = "</event>";
+
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final List<TestEventListener> listeners;
+
+    private final ByteArrayOutputStream event = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    private final Map<String, TestResult> tests = new HashMap<>();
+
+    private final Map<String, String> suiteDescriptions = new HashMap<>();
+
+    private boolean runFinished;
+
+    private IOException error;
+
+    /**
+     * Creates a new parser.
+     *
+     * @param listeners the listeners receiving the test events
+     */
+    public RealtimeEventParser(List<TestEventListener> listeners) {
+        this.listeners = new ArrayList<>(listeners);
+    }
+
+    /**
+     * Returns a print stream writing to this parser, to be given to the output
+     * buffer of the realtime reporter.
+     *
+     * @return the print stream
+     */
+    public PrintStream getPrintStream() {
+        try {
+            return new PrintStream(this, false, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        line.write(b);
+        if (b == '\n') {
+            endLine();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int start = off;
+        for (int i = off; i < off + len; i++) {
+            if (b[i] == '\n') {
+                line.write(b, start, i + 1 - start);
+                endLine();
+                start = i + 1;
+            }
+        }
+        line.write(b, start, off + len - start);
+    }
+
+    /**
+     * Parses the last event, if it was not terminated by a new line, and ends the
+     * run if its end was not reported, so the reports of an interrupted run are
+     * still complete documents.
+     */
+    @Override
+    public void close() throws IOException {
+        if (line.size() > 0) {
+            endLine();
+        }
+        if (!runFinished && error == null) {
+            try {
+                finishRun(0);
+            } catch (IOException e) {
+                error = e;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the first error raised while parsing the events or writing the
+     * reports. The print stream returned by {@link #getPrintStream()} does not
+     * report the errors of the stream it writes to.
+     *
+     * @return the error, null if none
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    private void endLine() throws IOException {
+        String text = line.toString(StandardCharsets.UTF_8.name());
+        line.writeTo(event);
+        line.reset();
+        if (text.trim().endsWith(EVENT_END)) {
+            // A malformed event is dropped, the next ones being parsed as usual.
+            try {
+                parseEvent();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+                throw e;
+            } finally {
+                event.reset();
+            }
+        }
+    }
+
+    private void finishRun(double executionTime) throws IOException {
+        runFinished = true;
+        for (TestEventListener listener : listeners) {
+            listener.runFinished(executionTime);
+        }
+    }
+
+    private void parseEvent() throws IOException {
+        byte[] bytes = event.toByteArray();
+
+        // The XML declaration, if any, must be the very first characters.
+        int offset = 0;
+        while (offset < bytes.length && bytes[offset] != '<') {
+            offset++;
+        }
+
+        try {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(
+                    new ByteArrayInputStream(bytes, offset, bytes.length - offset), StandardCharsets.UTF_8.name());
+            try {
+                if (reader.nextTag() == XMLStreamConstants.START_ELEMENT && "event".equals(reader.getLocalName())) {
+                    readEvent(reader, reader.getAttributeValue(null, "type"));
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid event in the realtime reporter output", e);
+        }
+    }
+
+    private void readEvent(XMLStreamReader reader, String type) throws XMLStreamException, IOException {
+        if ("pre-run".equals(type)) {
+            readChildren(reader, name -> {
+                if ("items".equals(name)) {
+                    readItems(reader, null);
+                    return true;
+                }
+                return false;
+            });
+        } else if ("post-test".equals(type)) {
+            readChildren(reader, name -> {
+                if ("test".equals(name)) {
+                    String id = reader.getAttributeValue(null, "id");
+                    TestResult test = tests.remove(id);
+                    if (test == null) {
+                        test = new TestResult(id);
+                    }
+                    readTest(reader, test);
+                    for (TestEventListener listener : listeners) {
+                        listener.testFinished(test);
+                    }
+                    return true;
+                }
+                return false;
+            });
+        } else if ("post-suite".equals(type)) {
+            readChildren(reader, name -> {
+                if ("suite".equals(name)) {
+                    String id = reader.getAttributeValue(null, "id");
+                    double executionTime = readExecutionTime(reader);
+                    for (TestEventListener listener : listeners) {
+                        listener.suiteFinished(id, suiteDescriptions.remove(id), executionTime);
+                    }
+                    return true;
+                }
+                return false;
+            });
+        } else if ("post-run".equals(type)) {
+            readChildren(reader, name -> {
+                if ("run".equals(name)) {
+                    finishRun(readExecutionTime(reader));
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    private void readItems(XMLStreamReader reader, String suiteId) throws XMLStreamException, IOException {
+        readChildren(reader, name -> {
+            String id = reader.getAttributeValue(null, "id");
+            if ("suite".equals(name)) {
+                readChildren(reader, child -> {
+                    if ("description".equals(child)) {
+                        suiteDescriptions.put(id, reader.getElementText());
+                        return true;
+                    } else if ("items".equals(child)) {
+                        readItems(reader, id);
+                        return true;
+                    }
+                    return false;
+                });
+                return true;
+            } else if ("test".equals(name)) {
+                TestResult test = new TestResult(id);
+                if (suiteId != null) {
+                    test.setSuiteId(suiteId);
+                }
+                readTest(reader, test);
+                tests.put(id, test);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void readTest(XMLStreamReader reader, TestResult test) throws XMLStreamException, IOException {
+        readChildren(reader, name -> {
+            switch (name) {
+            case "ownerName":
+                test.setOwnerName(reader.getElementText());
+                return true;
+            case "objectName":
+                test.setObjectName(reader.getElementText());
+                return true;
+            case "procedureName":
+                test.setProcedureName(reader.getElementText());
+                return true;
+            case "description":
+                test.setDescription(emptyToNull(reader.getElementText()));
+                return true;
+            case "disabled":
+                if ("true".equals(reader.getElementText())) {
+                    test.setStatus(Status.DISABLED);
+                }
+                return true;
+            case "executionTime":
+                test.setExecutionTime(toSeconds(reader.getElementText()));
+                return true;
+            case "counter":
+                test.setStatus(readStatus(reader));
+                return true;
+            case "errorStack":
+                test.setErrorStack(emptyToNull(reader.getElementText()));
+                return true;
+            case "serverOutput":
+                test.setServerOutput(emptyToNull(reader.getElementText()));
+                return true;
+            case "failedExpectations":
+                readChildren(reader, child -> {
+                    if ("expectation".equals(child)) {
+                        test.getFailures().add(readExpectation(reader));
+                        return true;
+                    }
+                    return false;
+                });
+                return true;
+            default:
+                return false;
+            }
+        });
+    }
+
+    private Status readStatus(XMLStreamReader reader) throws XMLStreamException, IOException {
+        Map<String, String> counter = new HashMap<>();
+        readChildren(reader, name -> {
+            counter.put(name, reader.getElementText());
+            return true;
+        });
+        if (isPositive(counter.get("error"))) {
+            return Status.ERROR;
+        } else if (isPositive(counter.get("failure"))) {
+            return Status.FAILURE;
+        } else if (isPositive(counter.get("disabled"))) {
+            return Status.DISABLED;
+        }
+        return Status.SUCCESS;
+    }
+
+    private String readExpectation(XMLStreamReader reader) throws XMLStreamException, IOException {
+        Map<String, String> expectation = new HashMap<>();
+        readChildren(reader, name -> {
+            expectation.put(name, emptyToNull(reader.getElementText()));
+            return true;
+        });
+        StringBuilder message = new StringBuilder();
+        for (String part : new String[] { expectation.get("description"), expectation.get("message"),
+                expectation.get("caller") }) {
+            if (part != null) {
+                message.append(message.length() > 0 ? "\n" : "").append(part.trim());
+            }
+        }
+        return message.toString();
+    }
+
+    private double readExecutionTime(XMLStreamReader reader) throws XMLStreamException, IOException {
+        double[] executionTime = new double[1];
+        readChildren(reader, name -> {
+            if ("executionTime".equals(name)) {
+                executionTime[0] = toSeconds(reader.getElementText());
+                return true;
+            }
+            return false;
+        });
+        return executionTime[0];
+    }
+
+    /**
+     * Reads the child elements of the current element, up to its end. Children
+     * not consumed by the handler are skipped.
+     */
+    private static void readChildren(XMLStreamReader reader, ChildHandler handler)
+            throws XMLStreamException, IOException {
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.START_ELEMENT && !handler.handle(reader.getLocalName())) {
+                skip(reader);
+            }
+        }
+    }
+
+    private static void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static boolean isPositive(String value) {
+        return value != null && !value.trim().isEmpty() && Long.parseLong(value.trim()) > 0;
+    }
+
+    private static double toSeconds(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+
+    /**
+     * Consumes a child element.
+     */
+    private interface ChildHandler {
+
+        /**
+         * Consumes the current child element, up to its end.
+         *
+         * @param name the element name
+         * @return false if the element was not consumed and must be skipped
+         */
+        boolean handle(String name) throws XMLStreamException, IOException;
+    }
+}
@@ -0,0 +1,272 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Merges the partial outputs of a reporter produced by several test runs into a
+ * single report.
+ *
+ * XML reports are merged under the root element of the first part, summing the
+ * numeric root attributes. Sonar coverage reports are merged per file and line,
+ * a line being covered if it is covered in any part. Plain text reports are
+ * concatenated. HTML and JSON reports cannot be merged, each part is kept in its
+ * own file next to the target. Reports written as a directory are merged into a
+ * single directory. Parts are not compressed, the merged reports are
+ * compressed as they are written.
+ */
+public class ReportMerger {
+
+    private ReportMerger() {
+        // NA
+    }
+
+    /**
+     * Merges the parts into the target file.
+     *
+     * @param parts  the partial reports, in order
+     * @param target the merged report file
+     * @return the files written
+     * @throws IOException if a part cannot be read or the target written
+     */
+    public static List<File> merge(List<File> parts, File target) throws IOException {
+        return merge(parts, target, Compression.NONE);
+    }
+
+    /**
+     * Merges the parts into the target file, compressing it.
+     *
+     * @param parts       the partial reports, in order
+     * @param target      the merged report file, without compression extension
+     * @param compression the compression of the merged report
+     * @return the files written
+     * @throws IOException if a part cannot be read or the target written
+     */
+    public static List<File> merge(List<File> parts, File target, Compression compression) throws IOException {
+        if (parts.stream().anyMatch(File::isDirectory)) {
+            return mergeDirectories(parts, target);
+        }
+
+        List<File> nonEmptyParts = parts.stream().filter(File::isFile).filter(f -> f.length() > 0)
+                .collect(Collectors.toList());
+
+        if (!target.getAbsoluteFile().getParentFile().exists()) {
+            target.getAbsoluteFile().getParentFile().mkdirs();
+        }
+
+        String head = nonEmptyParts.isEmpty() ? "" : readHead(nonEmptyParts.get(0));
+        String lowerHead = head.toLowerCase();
+        if (lowerHead.startsWith("{") || lowerHead.startsWith("[") || lowerHead.startsWith("<!doctype html")
+                || lowerHead.startsWith("<html")) {
+            return keepSeparate(nonEmptyParts, target, compression);
+        }
+
+        File file = compression.apply(target);
+        // A failed merge leaves the previous report untouched.
+        ReportSink sink = new ReportSink(file, compression);
+        try {
+            if (head.startsWith("<")) {
+                mergeXml(nonEmptyParts, sink.getPrintStream(), head.startsWith("<?xml"));
+            } else {
+                for (File part : nonEmptyParts) {
+                    Files.copy(part.toPath(), sink.getPrintStream());
+                }
+            }
+            sink.close();
+        } finally {
+            sink.discard();
+        }
+        return Collections.singletonList(file);
+    }
+
+    private static List<File> keepSeparate(List<File> parts, File target, Compression compression)
+            throws IOException {
+        if (parts.size() == 1) {
+            return Collections.singletonList(copy(parts.get(0), target, compression));
+        }
+
+        String name = target.getName();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot < 0 ? name : name.substring(0, dot);
+        String extension = dot < 0 ? "" : name.substring(dot);
+
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < parts.size(); i++) {
+            File file = new File(target.getAbsoluteFile().getParentFile(), baseName + "-" + (i + 1) + extension);
+            files.add(copy(parts.get(i), file, compression));
+        }
+        return files;
+    }
+
+    /**
+     * Reports written as a directory of files, one per suite, are merged by
+     * moving the files of every part to the target directory.
+     */
+    private static List<File> mergeDirectories(List<File> parts, File target) throws IOException {
+        target.mkdirs();
+        for (File part : parts) {
+            File[] files = part.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                Files.move(file.toPath(), new File(target, file.getName()).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return Collections.singletonList(target);
+    }
+
+    private static File copy(File part, File target, Compression compression) throws IOException {
+        if (compression == Compression.NONE) {
+            Files.copy(part.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        }
+
+        File file = compression.apply(target);
+        ReportSink sink = new ReportSink(file, compression);
+        try {
+            Files.copy(part.toPath(), sink.getPrintStream());
+            sink.close();
+        } finally {
+            sink.discard();
+        }
+        return file;
+    }
+
+    private static void mergeXml(List<File> parts, PrintStream out, boolean xmlDeclaration) throws IOException {
+        try {
+            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            Document merged = builder.parse(parts.get(0));
+            Element root = merged.getDocumentElement();
+
+            boolean coverage = "coverage".equals(root.getTagName());
+            Map<String, Element> files = new HashMap<>();
+            if (coverage) {
+                for (Element file : childElements(root)) {
+                    files.put(file.getAttribute("path"), file);
+                }
+            }
+
+            for (File part : parts.subList(1, parts.size())) {
+                Element partRoot = builder.parse(part).getDocumentElement();
+                if (coverage) {
+                    mergeCoverage(merged, root, files, partRoot);
+                } else {
+                    sumAttributes(root, partRoot);
+                    for (Element child : childElements(partRoot)) {
+                        root.appendChild(merged.importNode(child, true));
+                    }
+                }
+            }
+
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, xmlDeclaration ? "no" : "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(out));
+        } catch (ParserConfigurationException | SAXException | TransformerException e) {
+            throw new IOException("Unable to merge XML report " + parts.get(0), e);
+        }
+    }
+
+    private static void mergeCoverage(Document merged, Element root, Map<String, Element> files, Element partRoot) {
+        for (Element partFile : childElements(partRoot)) {
+            Element file = files.get(partFile.getAttribute("path"));
+            if (file == null) {
+                file = (Element) root.appendChild(merged.importNode(partFile, true));
+                files.put(file.getAttribute("path"), file);
+                continue;
+            }
+
+            Map<String, Element> lines = new HashMap<>();
+            for (Element line : childElements(file)) {
+                lines.put(line.getAttribute("lineNumber"), line);
+            }
+
+            for (Element partLine : childElements(partFile)) {
+                Element line = lines.get(partLine.getAttribute("lineNumber"));
+                if (line == null) {
+                    file.appendChild(merged.importNode(partLine, true));
+                    continue;
+                }
+                if ("true".equals(partLine.getAttribute("covered"))) {
+                    line.setAttribute("covered", "true");
+                }
+                if (partLine.hasAttribute("coveredBranches")) {
+                    long partBranches = Long.parseLong(partLine.getAttribute("coveredBranches"));
+                    long branches = line.hasAttribute("coveredBranches")
+                            ? Long.parseLong(line.getAttribute("coveredBranches"))
+                            : 0;
+                    line.setAttribute("coveredBranches", String.valueOf(Math.max(branches, partBranches)));
+                }
+            }
+        }
+    }
+
+    private static void sumAttributes(Element root, Element partRoot) {
+        NamedNodeMap attributes = partRoot.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attribute = (Attr) attributes.item(i);
+            if ("version".equals(attribute.getName()) || !root.hasAttribute(attribute.getName())) {
+                continue;
+            }
+            try {
+                BigDecimal sum = new BigDecimal(root.getAttribute(attribute.getName()))
+                        .add(new BigDecimal(attribute.getValue()));
+                root.setAttribute(attribute.getName(), sum.toPlainString());
+            } catch (NumberFormatException e) {
+                // Not a counter, the first part value is kept.
+            }
+        }
+    }
+
+    private static List<Element> childElements(Element parent) {
+        List<Element> children = new ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                children.add((Element) node);
+            }
+        }
+        return children;
+    }
+
+    private static String readHead(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath());
+                Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            char[] buffer = new char[256];
+            int read = reader.read(buffer);
+            return read <= 0 ? "" : new String(buffer, 0, read).trim();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File destination of a reporter output.
+ *
+ * The report is written in UTF-8 with large buffered blocks to a temporary file
+ * next to the target file, which is atomically moved into place when the sink
+ * is closed. The report can be compressed on the way. The sink keeps track of
+ * the bytes and lines of the report and of the time spent compressing and
+ * writing it to disk.
+ */
+public class ReportSink implements Closeable {
+
+    /**
+     * Size of the blocks written to disk.
+     */
+    public static final int BUFFER_SIZE = 256 * 1024;
+
+    private final File file;
+
+    private final Path tempFile;
+
+    private final MeteredOutputStream meter;
+
+    private final PrintStream printStream;
+
+    private boolean closed;
+
+    /**
+     * Opens a new sink for the given report file.
+     *
+     * @param file the report file
+     * @throws IOException if the temporary file cannot be created
+     */
+    public ReportSink(File file) throws IOException {
+        this(file, Compression.NONE);
+    }
+
+    /**
+     * Opens a new sink for the given report file, compressing the report.
+     *
+     * @param file        the report file, named after the compression
+     * @param compression the compression
+     * @throws IOException if the temporary file cannot be created
+     */
+    public ReportSink(File file, Compression compression) throws IOException {
+        this.file = file;
+        this.tempFile = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), file.getName(), ".tmp");
+        OutputStream out = new FileOutputStream(tempFile.toFile());
+        try {
+            out = compression.wrap(out);
+        } catch (IOException e) {
+            out.close();
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        this.meter = new MeteredOutputStream(out);
+        this.printStream = new PrintStream(new BufferedOutputStream(meter, BUFFER_SIZE), false,
+                StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Returns the stream the report must be printed to.
+     *
+     * @return the report print stream
+     */
+    public PrintStream getPrintStream() {
+        return printStream;
+    }
+
+    /**
+     * Returns the report file.
+     *
+     * @return the report file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the number of bytes of the report, before compression.
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return meter.bytes;
+    }
+
+    /**
+     * Returns the number of lines of the report.
+     *
+     * @return the number of lines written
+     */
+    public long getLinesWritten() {
+        return meter.lines;
+    }
+
+    /**
+     * Returns the time spent writing to disk.
+     *
+     * @return the write time in milliseconds
+     */
+    public long getWriteTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(meter.nanos);
+    }
+
+    /**
+     * Flushes the report and moves it into place.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        printStream.close();
+        if (printStream.checkError()) {
+            Files.deleteIfExists(tempFile);
+            throw new IOException("Failed to write report " + file.getAbsolutePath());
+        }
+
+        try {
+            Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Discards the report, leaving any previous report file untouched.
+     */
+    public void discard() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        printStream.close();
+        Files.deleteIfExists(tempFile);
+    }
+
+    /**
+     * Counts the bytes, lines and time of the writes reaching the compressor or
+     * the file.
+     */
+    private static class MeteredOutputStream extends FilterOutputStream {
+
+        private long bytes;
+
+        private long lines;
+
+        private long nanos;
+
+        MeteredOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            nanos += System.nanoTime() - start;
+
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.utplsql.api.reporter.DefaultReporter;
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.api.reporter.ReporterFactory;
+
+import oracle.jdbc.OracleConnection;
+
+/**
+ * Creates the reporters of a run in a single database call.
+ *
+ * Initializing a reporter creates its object in the database, a round trip per
+ * reporter before any test runs. The batch creates all of them in one anonymous
+ * block instead, returning the reporter objects at once. A reporter the batch
+ * did not create, because the block failed or the reporter was not announced,
+ * is created and initialized one by one as before.
+ */
+public class ReporterBatch {
+
+    private static final Log LOG = new SystemStreamLog();
+
+    private static final Pattern TYPE_NAME = Pattern.compile("[A-Za-z][\\w$#]*(\\.[A-Za-z][\\w$#]*)?");
+
+    private final ReporterFactory reporterFactory;
+
+    private final Connection connection;
+
+    private final Map<String, Deque<Object[]>> created = new HashMap<>();
+
+    /**
+     * Creates a new batch.
+     *
+     * @param reporterFactory the reporter factory, for the reporters created one
+     *                        by one
+     * @param connection      the database connection
+     */
+    public ReporterBatch(ReporterFactory reporterFactory, Connection connection) {
+        this.reporterFactory = reporterFactory;
+        this.connection = connection;
+    }
+
+    /**
+     * Creates the given reporters in the database, in a single call. The
+     * reporters are then returned by {@link #create(String)}.
+     *
+     * @param typeNames the reporter type names, a name being repeated for each
+     *                  reporter of that type
+     */
+    public void createAll(List<String> typeNames) {
+        if (typeNames.isEmpty() || !typeNames.stream().allMatch(name -> TYPE_NAME.matcher(name).matches())) {
+            return;
+        }
+        try {
+            // The reporter objects are bound back as the struct Reporter.init reads.
+            if (!connection.isWrapperFor(OracleConnection.class)) {
+                return;
+            }
+            try (CallableStatement statement = connection.prepareCall(buildBlock(typeNames))) {
+                for (int i = 1; i <= typeNames.size(); i++) {
+                    statement.registerOutParameter(i, Types.STRUCT, "UT_REPORTER_BASE");
+                }
+                statement.execute();
+                for (int i = 1; i <= typeNames.size(); i++) {
+                    Object[] attributes = ((Struct) statement.getObject(i)).getAttributes();
+                    created.computeIfAbsent(key(typeNames.get(i - 1)), name -> new ArrayDeque<>()).add(attributes);
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn("Unable to create the reporters in a single call, created one by one: " + e.getMessage());
+            created.clear();
+        }
+    }
+
+    /**
+     * Returns an initialized reporter of the given type, taken from the reporters
+     * created by {@link #createAll(List)} if any is left, created and initialized
+     * otherwise.
+     *
+     * @param typeName the reporter type name
+     * @return the initialized reporter
+     * @throws SQLException if the reporter cannot be initialized
+     */
+    public Reporter create(String typeName) throws SQLException {
+        Deque<Object[]> attributes = created.get(key(typeName));
+        if (attributes != null && !attributes.isEmpty()) {
+            return new CreatedReporter(typeName, attributes.poll());
+        }
+        Reporter reporter = reporterFactory.createReporter(typeName);
+        reporter.init(connection);
+        return reporter;
+    }
+
+    /**
+     * Returns the anonymous block creating the given reporters, binding each of
+     * them to an out parameter.
+     *
+     * @param typeNames the reporter type names
+     * @return the anonymous block
+     */
+    public static String buildBlock(List<String> typeNames) {
+        StringBuilder block = new StringBuilder("begin\n");
+        for (String typeName : typeNames) {
+            block.append("  ? := ").append(typeName).append("();\n");
+        }
+        return block.append("end;").toString();
+    }
+
+    private static String key(String typeName) {
+        return typeName.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Reporter whose database object was created by the batch. The runner does
+     * not initialize it again.
+     */
+    private static class CreatedReporter extends DefaultReporter {
+
+        private CreatedReporter(String typeName, Object[] attributes) {
+            super(typeName, attributes);
+        }
+
+        @Override
+        public boolean isInit() {
+            return true;
+        }
+    }
+}
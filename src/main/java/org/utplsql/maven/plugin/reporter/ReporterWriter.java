@@ -2,13 +2,25 @@ package org.utplsql.maven.plugin.reporter;
 
 import static java.lang.String.format;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -17,19 +29,65 @@ import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.utplsql.api.Version;
 import org.utplsql.api.outputBuffer.OutputBuffer;
 import org.utplsql.api.outputBuffer.OutputBufferProvider;
+import org.utplsql.api.reporter.CoreReporters;
 import org.utplsql.api.reporter.Reporter;
+import org.utplsql.maven.plugin.coverage.CoverageData;
+import org.utplsql.maven.plugin.coverage.CoverageFormat;
+import org.utplsql.maven.plugin.coverage.CoverallsParser;
+import org.utplsql.maven.plugin.metrics.ExecutionMetrics;
+import org.utplsql.maven.plugin.model.DatabaseObject;
 import org.utplsql.maven.plugin.model.ReporterParameter;
 
 public class ReporterWriter {
 
     private static final Log LOG = new SystemStreamLog();
 
+    // Coverage data is a line per covered line, fetched in bulk by default.
+    private static final int COVERAGE_FETCH_SIZE = 5000;
+
+    // Time left to the gatherers to drain the available output of a stopped run.
+    private static final long FAIL_FAST_DRAIN_MILLIS = 5000;
+
     private List<Pair<Reporter, ReporterParameter>> listReporters;
 
+    private List<ReporterParameter> eventOutputs = new ArrayList<>();
+
+    private List<TestEventListener> eventListeners = new ArrayList<>();
+
+    private Reporter eventReporter;
+
+    private Map<DatabaseObject, String> testFiles = Collections.emptyMap();
+
+    private List<ReporterParameter> coverageOutputs = new ArrayList<>();
+
+    private Reporter coverageReporter;
+
+    private boolean collectCoverage;
+
+    private File coverageDataFile;
+
+    private CoverageData coverage;
+
+    private File baseDirectory;
+
+    private FailFastListener failFast;
+
     private String outputDirectory;
 
     private Version databaseVersion;
 
+    private Integer fetchSize;
+
+    private ExecutionMetrics metrics;
+
+    private PrintStream console = System.out;
+
+    private ExecutorService gathererExecutor;
+
+    private List<Future<?>> gatherers = new ArrayList<>();
+
+    private List<Connection> gathererConnections = new CopyOnWriteArrayList<>();
+
     /**
      * Constructor of the reporter writer.
      * 
@@ -43,6 +101,33 @@ public class ReporterWriter {
 
     }
 
+    /**
+     * Sets the number of lines fetched per round trip when draining the reporters.
+     * 
+     * @param fetchSize the fetch size, or null to keep the driver default
+     */
+    public void setFetchSize(Integer fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Sets the metrics receiving the size of the written reports.
+     *
+     * @param metrics the execution metrics, or null
+     */
+    public void setMetrics(ExecutionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the stream receiving the console output when no other is given.
+     *
+     * @param console the console stream
+     */
+    public void setConsole(PrintStream console) {
+        this.console = console;
+    }
+
     /**
      * Adds a new reporter to the writter.
      * 
@@ -53,56 +138,361 @@ public class ReporterWriter {
         listReporters.add(Pair.of(reporter, parameter));
     }
 
+    /**
+     * Adds a reporter rendered on the Java side, from the events of the realtime
+     * reporter.
+     * 
+     * @param parameter the reporter parameter, named after one of the
+     *                  {@link LocalReporters}
+     */
+    public void addEventOutput(ReporterParameter parameter) {
+        eventOutputs.add(parameter);
+    }
+
+    /**
+     * Adds a listener receiving the events of the realtime reporter.
+     * 
+     * @param listener the listener
+     */
+    public void addEventListener(TestEventListener listener) {
+        eventListeners.add(listener);
+    }
+
+    /**
+     * Returns true if a reporter rendered on the Java side was added.
+     * 
+     * @return true if the realtime reporter is needed
+     */
+    public boolean hasEventOutputs() {
+        return !eventOutputs.isEmpty();
+    }
+
+    /**
+     * Creates the realtime reporter feeding the reporters rendered on the Java
+     * side, if any was added, from a reporter batch.
+     * 
+     * @param reporterBatch the reporter batch
+     * @return the realtime reporter, to be added to the test runner, or null if
+     *         no reporter is rendered on the Java side nor listens to the events
+     * @throws SQLException if the reporter cannot be initialized
+     * @see #needsEventReporter()
+     */
+    public Reporter initEventReporter(ReporterBatch reporterBatch) throws SQLException {
+        if (!needsEventReporter()) {
+            return null;
+        }
+        eventReporter = reporterBatch.create(CoreReporters.UT_REALTIME_REPORTER.name());
+        return eventReporter;
+    }
+
+    /**
+     * Returns true if the realtime reporter is needed, a reporter being rendered
+     * on the Java side or listening to the events.
+     * 
+     * @return true if the realtime reporter is needed
+     */
+    public boolean needsEventReporter() {
+        return !eventOutputs.isEmpty() || !eventListeners.isEmpty() || failFast != null;
+    }
+
+    /**
+     * Sets the test files, used to map the test packages to their file in the
+     * reports rendered on the Java side.
+     * 
+     * @param testFiles the test files, by the database object they define
+     */
+    public void setTestFiles(Map<DatabaseObject, String> testFiles) {
+        this.testFiles = testFiles;
+    }
+
+    /**
+     * Adds a coverage report rendered on the Java side, from the coverage data of
+     * the coveralls reporter.
+     * 
+     * @param parameter the reporter parameter, named after a coverage reporter
+     *                  with a {@link CoverageFormat}
+     */
+    public void addCoverageOutput(ReporterParameter parameter) {
+        coverageOutputs.add(parameter);
+    }
+
+    /**
+     * Returns true if a coverage report rendered on the Java side was added.
+     * 
+     * @return true if the coveralls reporter is needed
+     */
+    public boolean hasCoverageOutputs() {
+        return !coverageOutputs.isEmpty();
+    }
+
+    /**
+     * Requests the coverage data of the run, even if no coverage report is
+     * rendered on the Java side. The data is returned by {@link #getCoverage()}
+     * once the reporters are written.
+     */
+    public void collectCoverage() {
+        this.collectCoverage = true;
+    }
+
+    /**
+     * Sets the file the coverage data of the run is saved to, to be merged with
+     * the coverage of other runs.
+     * 
+     * @param coverageDataFile the coverage data file, or null
+     */
+    public void setCoverageDataFile(File coverageDataFile) {
+        this.coverageDataFile = coverageDataFile;
+    }
+
+    /**
+     * Returns the coverage data of the run.
+     * 
+     * @return the coverage data, or null if it was not collected
+     */
+    public CoverageData getCoverage() {
+        return coverage;
+    }
+
+    /**
+     * Creates the coveralls reporter providing the coverage data of the reports
+     * rendered on the Java side, if any was added or the coverage data is
+     * collected, from a reporter batch.
+     * 
+     * @param reporterBatch the reporter batch
+     * @return the coveralls reporter, to be added to the test runner, or null if
+     *         the coverage data is not needed
+     * @throws SQLException if the reporter cannot be initialized
+     * @see #needsCoverageReporter()
+     */
+    public Reporter initCoverageReporter(ReporterBatch reporterBatch) throws SQLException {
+        if (!needsCoverageReporter()) {
+            return null;
+        }
+        coverageReporter = reporterBatch.create(CoreReporters.UT_COVERALLS_REPORTER.name());
+        return coverageReporter;
+    }
+
+    /**
+     * Returns true if the coveralls reporter is needed, a coverage report being
+     * rendered on the Java side or the coverage data being collected.
+     * 
+     * @return true if the coveralls reporter is needed
+     */
+    public boolean needsCoverageReporter() {
+        return !coverageOutputs.isEmpty() || collectCoverage || coverageDataFile != null;
+    }
+
+    /**
+     * Watches the events of the realtime reporter for failing tests, stopping the
+     * run once the threshold of the listener is reached. The reporters must be
+     * gathered while the tests are running.
+     * 
+     * @param failFast the fail fast listener, or null
+     */
+    public void setFailFast(FailFastListener failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Sets the project directory, used to read the sources shown in the coverage
+     * reports rendered on the Java side.
+     * 
+     * @param baseDirectory the project directory
+     */
+    public void setBaseDirectory(File baseDirectory) {
+        this.baseDirectory = baseDirectory;
+    }
+
     /**
      * Writes the reporters to the output.
      * 
      * @param connection the database connection
      */
     public void writeReporters(Connection connection) throws MojoExecutionException {
-        for (Pair<Reporter, ReporterParameter> pair : listReporters) {
-            writeReports(connection, pair.getLeft(), pair.getRight());
-        }
+        writeReporters(connection, console);
     }
 
-    private void writeReports(Connection connection, Reporter reporter, ReporterParameter reporterParameter)
-            throws MojoExecutionException {
-        List<PrintStream> printStreams = new ArrayList<>();
-        FileOutputStream fout = null;
+    /**
+     * Writes the reporters to the output, redirecting the console output.
+     *
+     * @param connection the database connection
+     * @param console    the stream receiving the console output
+     */
+    public void writeReporters(Connection connection, PrintStream console) throws MojoExecutionException {
+        for (Drain drain : drains()) {
+            drain.drain(connection, console, false);
+        }
+    }
 
-        //
+    /**
+     * Writes the reporters to the output, draining up to {@code threads}
+     * reporters at the same time, each one on its own connection. The console
+     * output of every reporter is buffered and printed in the order the reporters
+     * were added, so the console stays deterministic.
+     * 
+     * @param dataSource the data source providing the drain connections
+     * @param threads    the maximum number of reporters drained in parallel
+     */
+    public void writeReporters(DataSource dataSource, int threads) throws MojoExecutionException {
+        List<Drain> drains = drains();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, drains.size())));
         try {
-            OutputBuffer buffer = OutputBufferProvider.getCompatibleOutputBuffer(databaseVersion, reporter, connection);
+            List<Future<ByteArrayOutputStream>> consoles = new ArrayList<>();
+            for (Drain drain : drains) {
+                consoles.add(executor.submit(() -> {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    try (Connection connection = dataSource.getConnection();
+                            PrintStream consoleStream = new PrintStream(buffer)) {
+                        drain.drain(connection, consoleStream, false);
+                    }
+                    return buffer;
+                }));
+            }
 
-            if (reporterParameter.isFileOutput()) {
+            for (Future<ByteArrayOutputStream> buffer : consoles) {
+                buffer.get().writeTo(console);
+            }
+            console.flush();
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Unexpected error draining reporter output", e.getCause());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unexpected error writing reporter output to console", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while draining reporter output", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts gathering the output of every reporter while the tests are running.
+     * Each reporter is consumed on its own connection, so the console and the
+     * report files are filled as the tests execute.
+     * 
+     * @param dataSource the data source providing the gatherer connections
+     */
+    public void startReporterGatherers(DataSource dataSource) {
+        startReporterGatherers(dataSource, console);
+    }
 
-                File file = new File(reporterParameter.getFileOutput());
-                if (!file.isAbsolute()) {
-                    file = new File(outputDirectory, reporterParameter.getFileOutput());
+    /**
+     * Starts gathering the output of every reporter while the tests are running,
+     * redirecting the console output.
+     * 
+     * @param dataSource the data source providing the gatherer connections
+     * @param console    the stream receiving the console output
+     */
+    public void startReporterGatherers(DataSource dataSource, PrintStream console) {
+        List<Drain> drains = drains();
+        gathererExecutor = Executors.newFixedThreadPool(Math.max(1, drains.size()));
+        for (Drain drain : drains) {
+            gatherers.add(gathererExecutor.submit(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    gathererConnections.add(connection);
+                    drain.drain(connection, console, true);
                 }
+                return null;
+            }));
+        }
+        gathererExecutor.shutdown();
+    }
 
-                if (!file.getParentFile().exists()) {
-                    LOG.debug("Creating directory for reporter file " + file.getAbsolutePath());
-                    file.getParentFile().mkdirs();
+    /**
+     * Waits for the reporter gatherers to finish.
+     * 
+     * @param abort true if the test run did not complete, in which case the
+     *              reporters will never be closed and the gatherer connections
+     *              are aborted instead of waiting for them
+     */
+    public void finishReporterGatherers(boolean abort) throws MojoExecutionException {
+        if (gathererExecutor == null) {
+            return;
+        }
+
+        if (abort && failFast != null && failFast.isStopped()) {
+            // The output produced before the stop is still drained.
+            try {
+                gathererExecutor.awaitTermination(FAIL_FAST_DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (abort) {
+            for (Connection connection : gathererConnections) {
+                try {
+                    connection.abort(Runnable::run);
+                } catch (SQLException e) {
+                    LOG.debug("Failed to abort reporter gatherer connection", e);
                 }
+            }
+        }
+
+        try {
+            for (Future<?> gatherer : gatherers) {
+                try {
+                    gatherer.get();
+                } catch (ExecutionException e) {
+                    if (!abort) {
+                        throw new MojoExecutionException("Unexpected error gathering reporter output", e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while gathering reporter output", e);
+        } finally {
+            gathererExecutor.shutdownNow();
+            gathererExecutor = null;
+            gatherers.clear();
+            gathererConnections.clear();
+        }
+    }
+
+    private void writeReports(Connection connection, Reporter reporter, ReporterParameter reporterParameter,
+            PrintStream console, boolean live) throws MojoExecutionException {
+        List<PrintStream> printStreams = new ArrayList<>();
+        ReportSink sink = null;
+
+        //
+        try {
+            OutputBuffer buffer = OutputBufferProvider.getCompatibleOutputBuffer(databaseVersion, reporter, connection);
+            if (fetchSize != null) {
+                buffer.setFetchSize(fetchSize);
+            }
 
-                fout = new FileOutputStream(file);
-                LOG.info(format("Writing report %s to %s", reporter.getTypeName(), file.getAbsolutePath()));
+            if (reporterParameter.isFileOutput()) {
+                sink = openSink(reporterParameter, reporter.getTypeName());
 
                 // Added to the Report
-                printStreams.add(new PrintStream(fout));
+                printStreams.add(sink.getPrintStream());
             }
 
             if (reporterParameter.isConsoleOutput()) {
                 LOG.info(format("Writing report %s to Console", reporter.getTypeName()));
-                printStreams.add(System.out);
+                printStreams.add(console);
+
+                // Lines are printed as soon as they are produced when streaming.
+                if (live) {
+                    buffer.setFetchSize(1);
+                }
+            }
+            long start = System.currentTimeMillis();
+            printAvailable(buffer, connection, printStreams, reporter.getTypeName());
+            long drainTime = System.currentTimeMillis() - start;
+
+            if (sink != null) {
+                closeSink(sink, reporter.getTypeName(), drainTime);
+            } else {
+                LOG.debug(format("Drained report %s in %d ms", reporter.getTypeName(), drainTime));
             }
-            buffer.printAvailable(connection, printStreams);
         } catch (Exception e) {
             throw new MojoExecutionException("Unexpected error opening file ouput ", e);
         } finally {
-            if (fout != null) {
+            if (sink != null) {
                 try {
-                    fout.close();
+                    sink.discard();
                 } catch (IOException e) {
                     LOG.info(format("Failed to closing the reporting %s", reporterParameter.getClass()));
                 }
@@ -110,4 +500,204 @@ public class ReporterWriter {
         }
 
     }
+
+    private void writeEvents(Connection connection, PrintStream console, boolean live)
+            throws MojoExecutionException {
+        Map<ReportSink, String> sinks = new LinkedHashMap<>();
+        List<TestEventListener> listeners = new ArrayList<>();
+
+        try {
+            OutputBuffer buffer = OutputBufferProvider.getCompatibleOutputBuffer(databaseVersion, eventReporter,
+                    connection);
+            if (fetchSize != null) {
+                buffer.setFetchSize(fetchSize);
+            }
+
+            for (ReporterParameter reporterParameter : eventOutputs) {
+                LocalReporters reporter = LocalReporters.of(reporterParameter.getName());
+                if (reporterParameter.isFileOutput()) {
+                    File directory = resolve(reporterParameter);
+                    TestEventListener listener = reporter.createDirectoryListener(directory, testFiles);
+                    if (listener != null) {
+                        LOG.info(format("Writing report %s to %s", reporter.name(), directory.getAbsolutePath()));
+                    } else {
+                        ReportSink sink = openSink(reporterParameter, reporter.name());
+                        sinks.put(sink, reporter.name());
+                        listener = reporter.createListener(sink.getPrintStream(), testFiles);
+                    }
+                    listeners.add(listener);
+                }
+                if (reporterParameter.isConsoleOutput()) {
+                    LOG.info(format("Writing report %s to Console", reporter.name()));
+                    listeners.add(reporter.createListener(console, testFiles));
+                    if (live) {
+                        buffer.setFetchSize(1);
+                    }
+                }
+            }
+
+            listeners.addAll(eventListeners);
+            if (failFast != null) {
+                listeners.add(failFast);
+                // Each event is parsed as soon as it is produced.
+                if (live) {
+                    buffer.setFetchSize(1);
+                }
+            }
+
+            RealtimeEventParser parser = new RealtimeEventParser(listeners);
+            long start = System.currentTimeMillis();
+            try (PrintStream events = parser.getPrintStream()) {
+                printAvailable(buffer, connection, Collections.singletonList(events),
+                        CoreReporters.UT_REALTIME_REPORTER.name());
+            }
+            long drainTime = System.currentTimeMillis() - start;
+            if (parser.getError() != null) {
+                throw parser.getError();
+            }
+
+            for (Map.Entry<ReportSink, String> sink : sinks.entrySet()) {
+                closeSink(sink.getKey(), sink.getValue(), drainTime);
+            }
+        } catch (Exception e) {
+            throw new MojoExecutionException("Unexpected error writing the realtime reporter events", e);
+        } finally {
+            for (ReportSink sink : sinks.keySet()) {
+                try {
+                    sink.discard();
+                } catch (IOException e) {
+                    LOG.info("Failed to close the realtime reporter output");
+                }
+            }
+        }
+    }
+
+    private void writeCoverage(Connection connection, PrintStream console) throws MojoExecutionException {
+        try {
+            OutputBuffer buffer = OutputBufferProvider.getCompatibleOutputBuffer(databaseVersion, coverageReporter,
+                    connection);
+            buffer.setFetchSize(fetchSize != null ? fetchSize : COVERAGE_FETCH_SIZE);
+
+            CoverallsParser parser = new CoverallsParser();
+            long start = System.currentTimeMillis();
+            try (PrintStream coverageStream = parser.getPrintStream()) {
+                buffer.printAvailable(connection, Collections.singletonList(coverageStream));
+            }
+            long drainTime = System.currentTimeMillis() - start;
+            coverage = parser.getCoverage();
+            LOG.info(format("Fetched the coverage of %d files in %d ms", coverage.getFiles().size(), drainTime));
+
+            if (coverageDataFile != null) {
+                coverage.write(coverageDataFile);
+                LOG.info("Saved the coverage data to " + coverageDataFile.getAbsolutePath());
+            }
+            writeCoverageReports(coverage, console, drainTime);
+        } catch (Exception e) {
+            throw new MojoExecutionException("Unexpected error writing the coverage reports", e);
+        }
+    }
+
+    /**
+     * Renders the coverage reports added to the writer from the given coverage
+     * data, such as the coverage merged from several runs.
+     * 
+     * @param coverageData the coverage data
+     * @param console      the stream receiving the console output
+     */
+    public void writeCoverageReports(CoverageData coverageData, PrintStream console)
+            throws MojoExecutionException {
+        try {
+            writeCoverageReports(coverageData, console, 0);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unexpected error writing the coverage reports", e);
+        }
+    }
+
+    private void writeCoverageReports(CoverageData coverageData, PrintStream console, long drainTime)
+            throws IOException {
+        // Each report renders its files in parallel.
+        for (ReporterParameter reporterParameter : coverageOutputs) {
+            CoverageFormat coverageFormat = CoverageFormat.of(reporterParameter.getName());
+            if (reporterParameter.isFileOutput()) {
+                ReportSink sink = openSink(reporterParameter, reporterParameter.getName());
+                try {
+                    coverageFormat.render(coverageData, sink.getPrintStream(), baseDirectory);
+                    closeSink(sink, reporterParameter.getName(), drainTime);
+                } finally {
+                    sink.discard();
+                }
+            }
+            if (reporterParameter.isConsoleOutput()) {
+                LOG.info(format("Writing report %s to Console", reporterParameter.getName()));
+                coverageFormat.render(coverageData, console, baseDirectory);
+            }
+        }
+    }
+
+    private void printAvailable(OutputBuffer buffer, Connection connection, List<PrintStream> printStreams,
+            String typeName) throws SQLException {
+        try {
+            buffer.printAvailable(connection, printStreams);
+        } catch (SQLException e) {
+            // A stopped run never finishes its reporters: the drain ends with its session.
+            if (failFast == null || !failFast.isStopped()) {
+                throw e;
+            }
+            LOG.warn(format("Report %s holds the output produced before the run was stopped", typeName));
+            LOG.debug(e);
+        }
+    }
+
+    private File resolve(ReporterParameter reporterParameter) {
+        File file = new File(reporterParameter.getFileOutput());
+        return file.isAbsolute() ? file : new File(outputDirectory, reporterParameter.getFileOutput());
+    }
+
+    private ReportSink openSink(ReporterParameter reporterParameter, String typeName) throws IOException {
+        File file = resolve(reporterParameter);
+        Compression compression = Compression.of(reporterParameter.getCompression());
+        file = compression.apply(file);
+
+        if (!file.getParentFile().exists()) {
+            LOG.debug("Creating directory for reporter file " + file.getAbsolutePath());
+            file.getParentFile().mkdirs();
+        }
+
+        ReportSink sink = new ReportSink(file, compression);
+        LOG.info(format("Writing report %s to %s", typeName, file.getAbsolutePath()));
+        return sink;
+    }
+
+    private void closeSink(ReportSink sink, String typeName, long drainTime) throws IOException {
+        sink.close();
+        LOG.info(format("Wrote report %s: %d bytes, %d lines, %d ms draining, %d ms writing", typeName,
+                sink.getBytesWritten(), sink.getLinesWritten(), drainTime, sink.getWriteTimeMillis()));
+        if (metrics != null) {
+            metrics.add("reportBytes", sink.getBytesWritten());
+            metrics.add("reportLines", sink.getLinesWritten());
+        }
+    }
+
+    private List<Drain> drains() {
+        List<Drain> drains = new ArrayList<>();
+        for (Pair<Reporter, ReporterParameter> pair : listReporters) {
+            drains.add((connection, console, live) -> writeReports(connection, pair.getLeft(), pair.getRight(),
+                    console, live));
+        }
+        if (eventReporter != null) {
+            drains.add(this::writeEvents);
+        }
+        if (coverageReporter != null) {
+            drains.add((connection, console, live) -> writeCoverage(connection, console));
+        }
+        return drains;
+    }
+
+    /**
+     * Drains the output of a database reporter.
+     */
+    private interface Drain {
+
+        void drain(Connection connection, PrintStream console, boolean live) throws MojoExecutionException;
+    }
 }
@@ -0,0 +1,96 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.utplsql.maven.plugin.model.DatabaseObject;
+import org.utplsql.maven.plugin.model.TestResult;
+
+/**
+ * Writes the test events in the SonarQube generic test execution format, the
+ * tests grouped by the file of their test package.
+ */
+public class SonarTestEventWriter extends XmlEventWriter {
+
+    private final Map<DatabaseObject, String> testFiles;
+
+    private final Map<String, List<TestResult>> files = new LinkedHashMap<>();
+
+    /**
+     * Creates a new writer.
+     *
+     * @param out       the stream receiving the report, not closed by the writer
+     * @param testFiles the test files, by the database object they define
+     */
+    public SonarTestEventWriter(OutputStream out, Map<DatabaseObject, String> testFiles) {
+        super(out);
+        this.testFiles = testFiles;
+    }
+
+    @Override
+    public void testFinished(TestResult test) {
+        DatabaseObject testPackage = new DatabaseObject(test.getOwnerName(), test.getObjectName(), null);
+        String path = testFiles.get(testPackage);
+        if (path == null) {
+            path = testPackage.toString();
+        }
+        files.computeIfAbsent(path, p -> new ArrayList<>()).add(test);
+    }
+
+    @Override
+    public void runFinished(double executionTime) throws IOException {
+        try {
+            XMLStreamWriter writer = getWriter();
+            writer.writeStartElement("testExecutions");
+            writeAttribute("version", 1);
+
+            for (Map.Entry<String, List<TestResult>> file : files.entrySet()) {
+                writer.writeCharacters("\n");
+                writer.writeStartElement("file");
+                writeAttribute("path", file.getKey());
+                for (TestResult test : file.getValue()) {
+                    writer.writeCharacters("\n");
+                    writer.writeStartElement("testCase");
+                    writeAttribute("name", test.getName());
+                    writeAttribute("duration", Math.round(test.getExecutionTime() * 1000));
+                    switch (test.getStatus()) {
+                    case FAILURE:
+                        String failures = String.join("\n", test.getFailures());
+                        writer.writeStartElement("failure");
+                        writeAttribute("message", firstLine(failures));
+                        writeText(failures);
+                        writer.writeEndElement();
+                        break;
+                    case ERROR:
+                        writer.writeStartElement("error");
+                        writeAttribute("message", firstLine(test.getErrorStack()));
+                        writeText(test.getErrorStack());
+                        writer.writeEndElement();
+                        break;
+                    case DISABLED:
+                        writer.writeStartElement("skipped");
+                        writeAttribute("message", "Test disabled");
+                        writer.writeEndElement();
+                        break;
+                    default:
+                        break;
+                    }
+                    writer.writeEndElement();
+                }
+                writer.writeCharacters("\n");
+                writer.writeEndElement();
+            }
+            files.clear();
+            endDocument();
+        } catch (XMLStreamException e) {
+            throw toIOException(e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.utplsql.maven.plugin.reporter;
+
+import static java.lang.String.format;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.utplsql.maven.plugin.model.TestResult;
+
+/**
+ * Writes the test events as Surefire reports, one {@code TEST-<suite>.xml} file
+ * per suite or context holding tests.
+ *
+ * The test cases are streamed to a part file as soon as each test has finished.
+ * Once the suite has finished, its file is written with the suite counters and
+ * the part is copied after them. Only the counters of the running suites are
+ * kept in memory, however many tests the run holds.
+ */
+public class SurefireEventWriter implements TestEventListener {
+
+    private static final String PART_EXTENSION = ".part";
+
+    private final File directory;
+
+    private final Writer summary;
+
+    private final Map<String, SuiteFile> suites = new LinkedHashMap<>();
+
+    /**
+     * Creates a new writer.
+     *
+     * @param directory the directory receiving the reports, or null to only
+     *                  write the summary
+     * @param summary   the stream receiving a summary line per suite, or null
+     */
+    public SurefireEventWriter(File directory, OutputStream summary) {
+        this.directory = directory;
+        this.summary = summary == null ? null : new OutputStreamWriter(summary, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the name of the report file of a suite.
+     *
+     * @param suiteId the suite id
+     * @return the file name
+     */
+    public static String getFileName(String suiteId) {
+        return "TEST-" + suiteId.replaceAll("[^\\w.$#-]", "_") + ".xml";
+    }
+
+    @Override
+    public void testFinished(TestResult test) throws IOException {
+        SuiteFile suite = suites.get(test.getSuiteId());
+        if (suite == null) {
+            suite = new SuiteFile(test.getSuiteId());
+            suites.put(test.getSuiteId(), suite);
+        }
+        suite.add(test);
+    }
+
+    @Override
+    public void suiteFinished(String suiteId, String description, double executionTime) throws IOException {
+        SuiteFile suite = suites.remove(suiteId);
+        if (suite != null) {
+            suite.finish(executionTime);
+        }
+    }
+
+    @Override
+    public void runFinished(double executionTime) throws IOException {
+        // Suites whose end was not reported, if the run was interrupted.
+        for (SuiteFile suite : suites.values()) {
+            suite.finish(suite.time);
+        }
+        suites.clear();
+        if (summary != null) {
+            summary.flush();
+        }
+    }
+
+    /**
+     * Report file of a running suite.
+     */
+    private class SuiteFile {
+
+        private final String suiteId;
+
+        private File part;
+
+        private OutputStream partStream;
+
+        private XMLStreamWriter partWriter;
+
+        private long tests;
+
+        private long failures;
+
+        private long errors;
+
+        private long skipped;
+
+        private double time;
+
+        private SuiteFile(String suiteId) throws IOException {
+            this.suiteId = suiteId;
+            if (directory != null) {
+                directory.mkdirs();
+                part = new File(directory, getFileName(suiteId) + PART_EXTENSION);
+                partStream = new BufferedOutputStream(Files.newOutputStream(part.toPath()), ReportSink.BUFFER_SIZE);
+                try {
+                    partWriter = XmlEventWriter.createWriter(partStream);
+                } catch (XMLStreamException e) {
+                    partStream.close();
+                    throw XmlEventWriter.toIOException(e);
+                }
+            }
+        }
+
+        private void add(TestResult test) throws IOException {
+            tests++;
+            time += test.getExecutionTime();
+            switch (test.getStatus()) {
+            case FAILURE:
+                failures++;
+                break;
+            case ERROR:
+                errors++;
+                break;
+            case DISABLED:
+                skipped++;
+                break;
+            default:
+                break;
+            }
+
+            if (partWriter != null) {
+                try {
+                    XmlEventWriter.writeTestCase(partWriter, suiteId, test);
+                } catch (XMLStreamException e) {
+                    throw XmlEventWriter.toIOException(e);
+                }
+            }
+        }
+
+        private void finish(double executionTime) throws IOException {
+            if (partWriter != null) {
+                writeReport(executionTime);
+            }
+            if (summary != null) {
+                summary.write(format(Locale.ROOT,
+                        "Tests run: %d, Failures: %d, Errors: %d, Skipped: %d, Time elapsed: %s s - in %s%n", tests,
+                        failures, errors, skipped, XmlEventWriter.formatSeconds(executionTime), suiteId));
+            }
+        }
+
+        private void writeReport(double executionTime) throws IOException {
+            File report = new File(directory, getFileName(suiteId));
+            try {
+                partWriter.writeCharacters("\n");
+                partWriter.close();
+                partStream.close();
+
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(report.toPath()),
+                        ReportSink.BUFFER_SIZE)) {
+                    XMLStreamWriter writer = XmlEventWriter.createWriter(out);
+                    writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                    writer.writeCharacters("\n");
+                    writer.writeStartElement("testsuite");
+                    XmlEventWriter.writeAttribute(writer, "name", suiteId);
+                    XmlEventWriter.writeAttribute(writer, "time", XmlEventWriter.formatSeconds(executionTime));
+                    XmlEventWriter.writeAttribute(writer, "tests", tests);
+                    XmlEventWriter.writeAttribute(writer, "errors", errors);
+                    XmlEventWriter.writeAttribute(writer, "skipped", skipped);
+                    XmlEventWriter.writeAttribute(writer, "failures", failures);
+                    // Closes the start tag before the test cases are copied after it.
+                    writer.writeCharacters("");
+                    writer.flush();
+
+                    Files.copy(part.toPath(), out);
+
+                    writer.writeEndDocument();
+                    writer.writeCharacters("\n");
+                    writer.close();
+                }
+            } catch (XMLStreamException e) {
+                throw XmlEventWriter.toIOException(e);
+            } finally {
+                Files.deleteIfExists(part.toPath());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.IOException;
+
+import org.utplsql.maven.plugin.model.TestResult;
+
+/**
+ * Receives the test events parsed from the utPLSQL realtime reporter.
+ */
+public interface TestEventListener {
+
+    /**
+     * Called when a test has finished.
+     *
+     * @param test the test result
+     * @throws IOException if the result cannot be written
+     */
+    void testFinished(TestResult test) throws IOException;
+
+    /**
+     * Called when a suite or context has finished, after all its tests.
+     *
+     * @param suiteId       the suite id
+     * @param description   the suite description, may be null
+     * @param executionTime the execution time, in seconds
+     * @throws IOException if the suite cannot be written
+     */
+    default void suiteFinished(String suiteId, String description, double executionTime) throws IOException {
+        // NA
+    }
+
+    /**
+     * Called when the run has finished, after all its suites.
+     *
+     * @param executionTime the execution time, in seconds
+     * @throws IOException if the report cannot be written
+     */
+    default void runFinished(double executionTime) throws IOException {
+        // NA
+    }
+}
@@ -0,0 +1,216 @@
+package org.utplsql.maven.plugin.reporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.utplsql.maven.plugin.model.TestResult;
+
+/**
+ * Base of the listeners writing the test events as an XML report, with a
+ * streaming XML writer.
+ */
+public abstract class XmlEventWriter implements TestEventListener {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final OutputStream out;
+
+    private XMLStreamWriter writer;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param out the stream receiving the report, not closed by the writer
+     */
+    protected XmlEventWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Returns the XML writer, starting the document on the first call.
+     *
+     * @return the XML writer
+     * @throws XMLStreamException if the document cannot be started
+     */
+    protected XMLStreamWriter getWriter() throws XMLStreamException {
+        if (writer == null) {
+            writer = createWriter(out);
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.writeCharacters("\n");
+        }
+        return writer;
+    }
+
+    /**
+     * Ends the document and flushes it to the stream.
+     *
+     * @throws XMLStreamException if the document cannot be written
+     */
+    protected void endDocument() throws XMLStreamException {
+        getWriter().writeEndDocument();
+        writer.writeCharacters("\n");
+        writer.flush();
+        writer.close();
+    }
+
+    /**
+     * Writes an attribute, skipped if the value is null.
+     *
+     * @param name  the attribute name
+     * @param value the attribute value
+     * @throws XMLStreamException if the attribute cannot be written
+     */
+    protected void writeAttribute(String name, Object value) throws XMLStreamException {
+        writeAttribute(getWriter(), name, value);
+    }
+
+    /**
+     * Writes the text content of the current element.
+     *
+     * @param text the text, may be null
+     * @throws XMLStreamException if the text cannot be written
+     */
+    protected void writeText(String text) throws XMLStreamException {
+        writeText(getWriter(), text);
+    }
+
+    /**
+     * Creates an XML writer on a stream, without starting a document.
+     *
+     * @param out the stream
+     * @return the XML writer
+     * @throws XMLStreamException if the writer cannot be created
+     */
+    static XMLStreamWriter createWriter(OutputStream out) throws XMLStreamException {
+        return OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Writes an attribute, skipped if the value is null.
+     *
+     * @param writer the XML writer
+     * @param name   the attribute name
+     * @param value  the attribute value
+     * @throws XMLStreamException if the attribute cannot be written
+     */
+    static void writeAttribute(XMLStreamWriter writer, String name, Object value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeAttribute(name, clean(String.valueOf(value)));
+        }
+    }
+
+    /**
+     * Writes the text content of the current element.
+     *
+     * @param writer the XML writer
+     * @param text   the text, may be null
+     * @throws XMLStreamException if the text cannot be written
+     */
+    static void writeText(XMLStreamWriter writer, String text) throws XMLStreamException {
+        if (text != null) {
+            writer.writeCharacters(clean(text));
+        }
+    }
+
+    /**
+     * Writes a test as a JUnit {@code testcase} element.
+     *
+     * @param writer    the XML writer
+     * @param className the class name of the test, its suite
+     * @param test      the test result
+     * @throws XMLStreamException if the test cannot be written
+     */
+    static void writeTestCase(XMLStreamWriter writer, String className, TestResult test)
+            throws XMLStreamException {
+        writer.writeCharacters("\n");
+        writer.writeStartElement("testcase");
+        writeAttribute(writer, "name", test.getName());
+        writeAttribute(writer, "classname", className);
+        writeAttribute(writer, "time", formatSeconds(test.getExecutionTime()));
+
+        switch (test.getStatus()) {
+        case FAILURE:
+            String failures = String.join("\n", test.getFailures());
+            writer.writeStartElement("failure");
+            writeAttribute(writer, "message", firstLine(failures));
+            writeText(writer, failures);
+            writer.writeEndElement();
+            break;
+        case ERROR:
+            writer.writeStartElement("error");
+            writeAttribute(writer, "message", firstLine(test.getErrorStack()));
+            writeText(writer, test.getErrorStack());
+            writer.writeEndElement();
+            break;
+        case DISABLED:
+            writer.writeEmptyElement("skipped");
+            break;
+        default:
+            break;
+        }
+
+        if (test.getServerOutput() != null) {
+            writer.writeStartElement("system-out");
+            writeText(writer, test.getServerOutput());
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+    }
+
+    /**
+     * Wraps an XML error in an I/O error.
+     *
+     * @param e the XML error
+     * @return the I/O error
+     */
+    protected static IOException toIOException(XMLStreamException e) {
+        return new IOException("Unable to write the XML report", e);
+    }
+
+    /**
+     * Formats a duration in seconds, with a millisecond precision.
+     *
+     * @param seconds the duration
+     * @return the formatted duration
+     */
+    protected static String formatSeconds(double seconds) {
+        return String.format(Locale.ROOT, "%.3f", seconds);
+    }
+
+    /**
+     * Returns the first line of a message.
+     *
+     * @param message the message, may be null
+     * @return the first line, null if the message is null
+     */
+    protected static String firstLine(String message) {
+        if (message == null) {
+            return null;
+        }
+        String trimmed = message.trim();
+        int end = trimmed.indexOf('\n');
+        return end < 0 ? trimmed : trimmed.substring(0, end).trim();
+    }
+
+    // Characters not allowed in XML 1.0 may appear in the server output.
+    private static String clean(String text) {
+        StringBuilder cleaned = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean allowed = c >= 0x20 || c == '\t' || c == '\n' || c == '\r';
+            if (!allowed && cleaned == null) {
+                cleaned = new StringBuilder(text.substring(0, i));
+            }
+            if (allowed && cleaned != null) {
+                cleaned.append(c);
+            }
+        }
+        return cleaned == null ? text : cleaned.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package org.utplsql.maven.plugin.runner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Run time history of the test units, kept between builds in a properties file.
+ *
+ * The history is used to schedule the longest units first: as each session
+ * takes the next unit when it is done with the previous one, this assigns every
+ * unit to the least loaded session (longest processing time first), which keeps
+ * the sessions finishing at about the same time.
+ */
+public class DurationHistory {
+
+    private File file;
+
+    private Properties durations = new Properties();
+
+    /**
+     * Loads the history from the given file, if it exists.
+     *
+     * @param file the history file
+     * @throws IOException if the file cannot be read
+     */
+    public DurationHistory(File file) throws IOException {
+        this.file = file;
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                durations.load(in);
+            }
+        }
+    }
+
+    /**
+     * Returns the last known run time of a unit.
+     *
+     * @param unit the unit
+     * @return the run time in milliseconds, or null if unknown
+     */
+    public Long getDuration(String unit) {
+        String duration = durations.getProperty(unit);
+        try {
+            return duration == null ? null : Long.valueOf(duration);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the order in which the units should be started, longest first.
+     * Units without history are assumed to take the average known run time.
+     *
+     * @param units the units
+     * @return the indexes of the units, in start order
+     */
+    public List<Integer> schedule(List<String> units) {
+        long total = 0;
+        int known = 0;
+        for (String unit : units) {
+            Long duration = getDuration(unit);
+            if (duration != null) {
+                total += duration;
+                known++;
+            }
+        }
+        long average = known == 0 ? 0 : total / known;
+
+        List<Integer> order = new ArrayList<>();
+        List<Long> estimates = new ArrayList<>();
+        for (int i = 0; i < units.size(); i++) {
+            Long duration = getDuration(units.get(i));
+            order.add(i);
+            estimates.add(duration == null ? average : duration);
+        }
+        order.sort(Comparator.comparing((Integer i) -> estimates.get(i)).reversed());
+        return order;
+    }
+
+    /**
+     * Records the run time of the units that have run.
+     *
+     * @param runDurations the run time of each unit, in milliseconds
+     */
+    public void record(Map<String, Long> runDurations) {
+        runDurations.forEach((unit, duration) -> durations.setProperty(unit, String.valueOf(duration)));
+    }
+
+    /**
+     * Saves the history.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            durations.store(out, "utPLSQL test unit run times, in milliseconds");
+        }
+    }
+}
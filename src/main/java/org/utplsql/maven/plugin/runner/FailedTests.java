@@ -0,0 +1,119 @@
+package org.utplsql.maven.plugin.runner;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.utplsql.maven.plugin.model.TestResult;
+import org.utplsql.maven.plugin.reporter.TestEventListener;
+
+/**
+ * Failed tests of the last runs, kept between builds in a text file, one test
+ * path per line.
+ *
+ * The failing tests are recorded from the realtime reporter events. A run of
+ * the whole suite replaces the recorded tests; a narrowed run only updates the
+ * tests it ran, so the failures of the tests it did not run are kept.
+ */
+public class FailedTests implements TestEventListener {
+
+    private static final String HEADER = "# utPLSQL tests failed on the last runs";
+
+    private final File file;
+
+    private final Set<String> previous = new TreeSet<>();
+
+    private final Set<String> run = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Loads the failed tests from the given file, if it exists.
+     *
+     * @param file the failed tests file
+     * @throws IOException if the file cannot be read
+     */
+    public FailedTests(File file) throws IOException {
+        this.file = file;
+        if (file.isFile()) {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                String path = line.trim();
+                if (!path.isEmpty() && !path.startsWith("#")) {
+                    previous.add(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tests that failed on the last runs.
+     *
+     * @return the test paths, sorted
+     */
+    public List<String> getPaths() {
+        return new ArrayList<>(previous);
+    }
+
+    /**
+     * Returns the number of tests that failed in the current run.
+     *
+     * @return the number of failed or errored tests
+     */
+    public int getFailureCount() {
+        return failed.size();
+    }
+
+    @Override
+    public void testFinished(TestResult test) {
+        String path = toPath(test);
+        run.add(path);
+        if (test.getStatus() == TestResult.Status.FAILURE || test.getStatus() == TestResult.Status.ERROR) {
+            failed.add(path);
+        }
+    }
+
+    /**
+     * Saves the failed tests, the file being deleted if no test failed.
+     *
+     * @param wholeSuite true if the whole suite was run, in which case the tests
+     *                   failed on previous runs are forgotten
+     * @throws IOException if the file cannot be written
+     */
+    public void save(boolean wholeSuite) throws IOException {
+        Set<String> paths = new TreeSet<>(failed);
+        if (!wholeSuite) {
+            previous.stream().filter(path -> !run.contains(path)).forEach(paths::add);
+        }
+
+        if (paths.isEmpty()) {
+            Files.deleteIfExists(file.toPath());
+            return;
+        }
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (String path : paths) {
+                writer.write(path);
+                writer.newLine();
+            }
+        }
+    }
+
+    // The owner.package.procedure form is a path of the test runner.
+    private static String toPath(TestResult test) {
+        if (test.getOwnerName() != null && test.getObjectName() != null && test.getProcedureName() != null) {
+            return (test.getOwnerName() + "." + test.getObjectName() + "." + test.getProcedureName())
+                    .toLowerCase(Locale.ROOT);
+        }
+        return test.getId();
+    }
+}
@@ -0,0 +1,506 @@
+package org.utplsql.maven.plugin.runner;
+
+import static java.lang.String.format;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+import org.utplsql.api.TestRunner;
+import org.utplsql.api.Version;
+import org.utplsql.api.exception.SomeTestsFailedException;
+import org.utplsql.api.reporter.CoreReporters;
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.api.reporter.ReporterFactory;
+import org.utplsql.maven.plugin.coverage.CoverageData;
+import org.utplsql.maven.plugin.coverage.CoverageFormat;
+import org.utplsql.maven.plugin.metrics.ExecutionMetrics;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.reporter.Compression;
+import org.utplsql.maven.plugin.reporter.FailFastListener;
+import org.utplsql.maven.plugin.reporter.LocalReporters;
+import org.utplsql.maven.plugin.reporter.ReportMerger;
+import org.utplsql.maven.plugin.reporter.ReporterBatch;
+import org.utplsql.maven.plugin.reporter.ReporterWriter;
+import org.utplsql.maven.plugin.reporter.TestEventListener;
+
+/**
+ * Runs the tests on several database sessions at the same time.
+ *
+ * The suite is split into units, one per path. Each session takes the next unit
+ * to run, runs it with its own reporters and writes their output to a part
+ * file. When a run time history is available, the longest units are started
+ * first. Once every unit has run, the parts of each reporter are merged into the
+ * configured output, in the order of the units. The coverage reports cannot be
+ * merged as text: the coverage data of the units is merged instead, and each
+ * coverage report is rendered once from it.
+ */
+public class ParallelRunner {
+
+    private static final Log LOG = new SystemStreamLog();
+
+    private static final String SUITES_QUERY = "select distinct object_owner || '.' || object_name "
+            + "from table(ut_runner.get_suites_info(?)) where item_type = 'UT_SUITE' order by 1";
+
+    private DataSource dataSource;
+
+    private Supplier<TestRunner> runnerSupplier;
+
+    private ReporterFactory reporterFactory;
+
+    private List<ReporterParameter> reporterParameters;
+
+    private String outputDirectory;
+
+    private Version databaseVersion;
+
+    private int parallelism;
+
+    private Integer fetchSize;
+
+    private Map<DatabaseObject, String> testFiles = Collections.emptyMap();
+
+    private File baseDirectory;
+
+    private File coverageDataFile;
+
+    private CoverageData coverage = new CoverageData();
+
+    private DurationHistory durationHistory;
+
+    private ExecutionMetrics metrics;
+
+    private FailFastListener failFast;
+
+    private List<TestEventListener> eventListeners = new ArrayList<>();
+
+    private Map<String, Long> durations = new LinkedHashMap<>();
+
+    private PrintStream console = System.out;
+
+    /**
+     * Constructor of the parallel runner.
+     *
+     * @param dataSource         the data source providing the sessions
+     * @param runnerSupplier     supplies a configured runner, without paths nor
+     *                           reporters
+     * @param reporterFactory    the reporter factory
+     * @param reporterParameters the reporters to run
+     * @param outputDirectory    the reporter output directory
+     * @param databaseVersion    the utPLSQL framework version
+     * @param parallelism        the number of sessions
+     */
+    public ParallelRunner(DataSource dataSource, Supplier<TestRunner> runnerSupplier, ReporterFactory reporterFactory,
+            List<ReporterParameter> reporterParameters, String outputDirectory, Version databaseVersion,
+            int parallelism) {
+        this.dataSource = dataSource;
+        this.runnerSupplier = runnerSupplier;
+        this.reporterFactory = reporterFactory;
+        this.reporterParameters = reporterParameters;
+        this.outputDirectory = outputDirectory;
+        this.databaseVersion = databaseVersion;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the number of lines fetched per round trip when draining the reporters.
+     *
+     * @param fetchSize the fetch size, or null to keep the driver default
+     */
+    public void setFetchSize(Integer fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Sets the project directory, the sources shown in the coverage reports are
+     * read from.
+     *
+     * @param baseDirectory the project directory
+     */
+    public void setBaseDirectory(File baseDirectory) {
+        this.baseDirectory = baseDirectory;
+    }
+
+    /**
+     * Sets the file the merged coverage data of the units is saved to.
+     *
+     * @param coverageDataFile the coverage data file, or null
+     */
+    public void setCoverageDataFile(File coverageDataFile) {
+        this.coverageDataFile = coverageDataFile;
+    }
+
+    /**
+     * Sets the test files, used by the reporters rendered on the Java side.
+     *
+     * @param testFiles the test files, by the database object they define
+     */
+    public void setTestFiles(Map<DatabaseObject, String> testFiles) {
+        this.testFiles = testFiles;
+    }
+
+    /**
+     * Sets the stream receiving the console output of the units.
+     *
+     * @param console the console stream
+     */
+    public void setConsole(PrintStream console) {
+        this.console = console;
+    }
+
+    /**
+     * Sets the run time history used to start the longest units first.
+     *
+     * @param durationHistory the run time history, or null to start the units in
+     *                        order
+     */
+    public void setDurationHistory(DurationHistory durationHistory) {
+        this.durationHistory = durationHistory;
+    }
+
+    /**
+     * Sets the metrics receiving the size of the written reports.
+     *
+     * @param metrics the execution metrics, or null
+     */
+    public void setMetrics(ExecutionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Stops the run once the threshold of failing tests is reached, over all the
+     * units. The reporters of each unit are then gathered while its tests run,
+     * and the units not started yet are skipped.
+     *
+     * @param failFast the fail fast listener, or null
+     */
+    public void setFailFast(FailFastListener failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Adds a listener receiving the realtime reporter events of every unit. The
+     * events of the units are received concurrently.
+     *
+     * @param listener the listener
+     */
+    public void addEventListener(TestEventListener listener) {
+        eventListeners.add(listener);
+    }
+
+    /**
+     * Returns the run time of each unit, in milliseconds.
+     *
+     * @return the run time of each unit that has run
+     */
+    public Map<String, Long> getDurations() {
+        return durations;
+    }
+
+    /**
+     * Splits the paths into units. Paths made of a schema only are expanded into
+     * the test suite packages of this schema, other paths are kept as they are.
+     *
+     * @param connection the database connection
+     * @param paths      the test paths
+     * @return the units to run
+     */
+    public static List<String> expandPaths(Connection connection, List<String> paths) {
+        List<String> units = new ArrayList<>();
+        for (String path : paths) {
+            if (path.contains(".") || path.contains(":")) {
+                units.add(path);
+                continue;
+            }
+
+            List<String> suites = new ArrayList<>();
+            try (PreparedStatement stmt = connection.prepareStatement(SUITES_QUERY)) {
+                stmt.setString(1, path);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        suites.add(rs.getString(1));
+                    }
+                }
+            } catch (SQLException e) {
+                LOG.debug(format("Unable to list the suites of %s, running it as a single unit", path), e);
+                suites.clear();
+            }
+
+            if (suites.isEmpty()) {
+                units.add(path);
+            } else {
+                units.addAll(suites);
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Runs the units.
+     *
+     * @param units the units to run
+     * @throws SomeTestsFailedException if tests failed in any of the units
+     * @throws SQLException             if a unit could not be run
+     * @throws MojoExecutionException   if the reports could not be written
+     */
+    public void run(List<String> units) throws SQLException, MojoExecutionException {
+        File partsDirectory = new File(outputDirectory, "utplsql-parts");
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, units.size())));
+
+        SQLException failure = null;
+        try {
+            List<Integer> schedule = new ArrayList<>();
+            if (durationHistory != null) {
+                schedule.addAll(durationHistory.schedule(units));
+            } else {
+                for (int i = 0; i < units.size(); i++) {
+                    schedule.add(i);
+                }
+            }
+
+            // Units are started in schedule order, their output is kept in unit order.
+            List<Future<UnitResult>> results = new ArrayList<>(Collections.nCopies(units.size(), null));
+            for (int i : schedule) {
+                File unitDirectory = new File(partsDirectory, String.valueOf(i));
+                String unit = units.get(i);
+                results.set(i, executor.submit(() -> runUnit(unit, unitDirectory)));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                UnitResult result = results.get(i).get();
+                result.console.writeTo(console);
+                console.flush();
+                if (result.skipped) {
+                    continue;
+                }
+                durations.put(units.get(i), result.duration);
+
+                if (result.failure != null && (failure == null
+                        || failure instanceof SomeTestsFailedException
+                                && !(result.failure instanceof SomeTestsFailedException))) {
+                    failure = result.failure;
+                }
+            }
+
+            mergeParts(partsDirectory, units.size());
+            writeCoverage();
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Unexpected error running the tests in parallel", e.getCause());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unexpected error merging the reports", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while running the tests in parallel", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try {
+            FileUtils.deleteDirectory(partsDirectory);
+        } catch (IOException e) {
+            LOG.debug("Failed to delete the report parts " + partsDirectory, e);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private UnitResult runUnit(String unit, File unitDirectory) throws MojoExecutionException, SQLException {
+        UnitResult result = new UnitResult();
+        if (failFast != null && failFast.isStopped()) {
+            result.skipped = true;
+            return result;
+        }
+        long start = System.currentTimeMillis();
+
+        try (Connection connection = dataSource.getConnection();
+                PrintStream console = new PrintStream(result.console)) {
+            ReporterWriter reporterWriter = new ReporterWriter(unitDirectory.getPath(), databaseVersion);
+            reporterWriter.setFetchSize(fetchSize);
+            reporterWriter.setMetrics(metrics);
+
+            List<ReporterParameter> databaseReporters = new ArrayList<>();
+            for (int i = 0; i < reporterParameters.size(); i++) {
+                ReporterParameter reporterParameter = reporterParameters.get(i);
+                ReporterParameter partParameter = new ReporterParameter();
+                partParameter.setName(reporterParameter.getName());
+                partParameter.setConsoleOutput(reporterParameter.isConsoleOutput());
+                if (reporterParameter.isFileOutput()) {
+                    partParameter.setFileOutput(String.valueOf(i));
+                }
+
+                if (CoverageFormat.of(reporterParameter.getName()) != null) {
+                    reporterWriter.collectCoverage();
+                    continue;
+                }
+
+                if (LocalReporters.isLocal(reporterParameter.getName())) {
+                    if (partParameter.isFileOutput() || partParameter.isConsoleOutput()) {
+                        reporterWriter.addEventOutput(partParameter);
+                    }
+                    continue;
+                }
+
+                databaseReporters.add(partParameter);
+            }
+
+            if (coverageDataFile != null) {
+                reporterWriter.collectCoverage();
+            }
+            eventListeners.forEach(reporterWriter::addEventListener);
+            if (failFast != null) {
+                reporterWriter.setFailFast(failFast);
+            }
+
+            // All the reporters of the unit are created in the database in a single call.
+            List<String> typeNames = new ArrayList<>();
+            databaseReporters.forEach(reporterParameter -> typeNames.add(reporterParameter.getName()));
+            if (reporterWriter.needsCoverageReporter()) {
+                typeNames.add(CoreReporters.UT_COVERALLS_REPORTER.name());
+            }
+            if (reporterWriter.needsEventReporter()) {
+                typeNames.add(CoreReporters.UT_REALTIME_REPORTER.name());
+            }
+            ReporterBatch reporterBatch = new ReporterBatch(reporterFactory, connection);
+            reporterBatch.createAll(typeNames);
+
+            List<Reporter> reporterList = new ArrayList<>();
+            for (ReporterParameter partParameter : databaseReporters) {
+                Reporter reporter = reporterBatch.create(partParameter.getName());
+                reporterList.add(reporter);
+                if (partParameter.isFileOutput() || partParameter.isConsoleOutput()) {
+                    reporterWriter.addReporter(partParameter, reporter);
+                }
+            }
+
+            Reporter coverageReporter = reporterWriter.initCoverageReporter(reporterBatch);
+            if (coverageReporter != null) {
+                reporterList.add(coverageReporter);
+            }
+
+            Reporter eventReporter = reporterWriter.initEventReporter(reporterBatch);
+            if (eventReporter != null) {
+                reporterList.add(eventReporter);
+                reporterWriter.setTestFiles(testFiles);
+            }
+
+            TestRunner runner = runnerSupplier.get().addPath(unit).addReporterList(reporterList);
+            if (failFast != null) {
+                reporterWriter.startReporterGatherers(dataSource, console);
+                failFast.watch(connection);
+            }
+            boolean runCompleted = false;
+            try {
+                runner.run(connection);
+                runCompleted = true;
+            } catch (SomeTestsFailedException e) {
+                runCompleted = true;
+                result.failure = e;
+            } catch (SQLException e) {
+                result.failure = e;
+            } finally {
+                if (failFast != null) {
+                    failFast.unwatch(connection);
+                    reporterWriter.finishReporterGatherers(!runCompleted);
+                } else {
+                    reporterWriter.writeReporters(connection, console);
+                }
+                if (reporterWriter.getCoverage() != null) {
+                    synchronized (coverage) {
+                        coverage.addAll(reporterWriter.getCoverage());
+                    }
+                }
+            }
+        }
+
+        result.duration = System.currentTimeMillis() - start;
+        return result;
+    }
+
+    private void mergeParts(File partsDirectory, int unitCount) throws IOException {
+        for (int i = 0; i < reporterParameters.size(); i++) {
+            ReporterParameter reporterParameter = reporterParameters.get(i);
+            if (!reporterParameter.isFileOutput() || CoverageFormat.of(reporterParameter.getName()) != null) {
+                continue;
+            }
+
+            List<File> parts = new ArrayList<>();
+            for (int unit = 0; unit < unitCount; unit++) {
+                parts.add(new File(new File(partsDirectory, String.valueOf(unit)), String.valueOf(i)));
+            }
+
+            File file = new File(reporterParameter.getFileOutput());
+            if (!file.isAbsolute()) {
+                file = new File(outputDirectory, reporterParameter.getFileOutput());
+            }
+
+            List<File> written = ReportMerger.merge(parts, file,
+                    Compression.of(reporterParameter.getCompression()));
+            if (written.size() > 1) {
+                LOG.warn(format("Report %s cannot be merged, one report per unit was written next to %s",
+                        reporterParameter.getName(), file.getAbsolutePath()));
+            } else {
+                LOG.info(format("Merged report %s to %s", reporterParameter.getName(),
+                        written.get(0).getAbsolutePath()));
+            }
+        }
+    }
+
+    private void writeCoverage() throws IOException, MojoExecutionException {
+        if (coverageDataFile != null) {
+            coverage.write(coverageDataFile);
+            LOG.info("Saved the coverage data to " + coverageDataFile.getAbsolutePath());
+        }
+
+        ReporterWriter reporterWriter = new ReporterWriter(outputDirectory, databaseVersion);
+        reporterWriter.setMetrics(metrics);
+        reporterWriter.setBaseDirectory(baseDirectory);
+        for (ReporterParameter reporterParameter : reporterParameters) {
+            if (CoverageFormat.of(reporterParameter.getName()) != null) {
+                reporterWriter.addCoverageOutput(reporterParameter);
+            }
+        }
+        if (reporterWriter.hasCoverageOutputs()) {
+            LOG.info(format("Merged the coverage of %d files", coverage.getFiles().size()));
+            reporterWriter.writeCoverageReports(coverage, console);
+            console.flush();
+        }
+    }
+
+    /**
+     * Outcome of the run of a unit.
+     */
+    private static class UnitResult {
+
+        private ByteArrayOutputStream console = new ByteArrayOutputStream();
+
+        private SQLException failure;
+
+        private long duration;
+
+        private boolean skipped;
+    }
+}
@@ -0,0 +1,113 @@
+package org.utplsql.maven.plugin.runner;
+
+import static java.lang.String.format;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of the run of each target of a fan-out execution.
+ */
+public class TargetsSummary {
+
+    private final List<Outcome> outcomes = new ArrayList<>();
+
+    /**
+     * Adds the outcome of a target.
+     *
+     * @param name     the target name
+     * @param duration the run time of the target, in milliseconds
+     * @param failure  the failure message, null if the target passed
+     */
+    public synchronized void add(String name, long duration, String failure) {
+        outcomes.add(new Outcome(name, duration, failure));
+    }
+
+    /**
+     * Returns the number of failed targets.
+     *
+     * @return the number of failed targets
+     */
+    public synchronized int getFailureCount() {
+        return (int) outcomes.stream().filter(outcome -> outcome.failure != null).count();
+    }
+
+    /**
+     * Returns a line per target, in the order the targets were added.
+     *
+     * @return the summary lines
+     */
+    public synchronized List<String> getLines() {
+        int width = outcomes.stream().mapToInt(outcome -> outcome.name.length()).max().orElse(0);
+        List<String> lines = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            lines.add(format(Locale.ROOT, "%-" + width + "s %s (%.1f s)%s", outcome.name,
+                    outcome.failure == null ? "PASSED" : "FAILED", outcome.duration / 1000.0,
+                    outcome.failure == null ? "" : ": " + outcome.failure));
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the summary as JSON.
+     *
+     * @param file the summary file
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void writeJson(File file) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"targets\": ").append(outcomes.size()).append(",\n  \"failed\": ")
+                .append(getFailureCount()).append(",\n  \"results\": [");
+        for (int i = 0; i < outcomes.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("    { \"name\": \"").append(escape(outcome.name))
+                    .append("\", \"passed\": ").append(outcome.failure == null).append(", \"millis\": ")
+                    .append(outcome.duration);
+            if (outcome.failure != null) {
+                json.append(", \"failure\": \"").append(escape(outcome.failure)).append('"');
+            }
+            json.append(" }");
+        }
+        json.append("\n  ]\n}\n");
+
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        Files.write(file.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Outcome of a target.
+     */
+    private static class Outcome {
+
+        private final String name;
+
+        private final long duration;
+
+        private final String failure;
+
+        private Outcome(String name, long duration, String failure) {
+            this.name = name;
+            this.duration = duration;
+            this.failure = failure;
+        }
+    }
+}
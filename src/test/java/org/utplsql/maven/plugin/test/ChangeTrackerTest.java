@@ -0,0 +1,57 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.incremental.ChangeTracker;
+
+public class ChangeTrackerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testFindChanges.
+     *
+     * Given : the hashes of a previous run When : files are modified, added and
+     * removed Then : exactly these files are reported as changed, a removed test
+     * file being known as a test
+     */
+    @Test
+    public void testFindChanges() throws Exception {
+        File baseDir = folder.newFolder("project");
+        File hashes = new File(folder.getRoot(), "target/utplsql/file-hashes.properties");
+        write(baseDir, "a.pkb", "body a");
+        write(baseDir, "b.pkb", "body b");
+        write(baseDir, "c.pkb", "body c");
+
+        ChangeTracker first = new ChangeTracker(hashes, baseDir);
+        assertFalse(first.hasHistory());
+        assertEquals(3, first.findChanges(Arrays.asList("a.pkb", "b.pkb"), Arrays.asList("c.pkb")).size());
+        first.save();
+
+        write(baseDir, "b.pkb", "body b changed");
+        write(baseDir, "d.pkb", "body d");
+
+        ChangeTracker second = new ChangeTracker(hashes, baseDir);
+        assertTrue(second.hasHistory());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("b.pkb", "d.pkb", "c.pkb")),
+                second.findChanges(Arrays.asList("a.pkb", "b.pkb", "d.pkb"), Collections.emptyList()));
+        assertEquals(Collections.singleton("c.pkb"), second.getRemovedTests());
+    }
+
+    private static void write(File baseDir, String name, String content) throws Exception {
+        Files.write(new File(baseDir, name).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.coverage.CoverageData;
+import org.utplsql.maven.plugin.coverage.CoverageFormat;
+import org.utplsql.maven.plugin.coverage.CoverallsParser;
+
+public class CoverageFormatTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final String COVERALLS = "{\"source_files\":[\n"
+            + "{ \"name\": \"src/main/plsql/betwnstr.fnc\",\n\"coverage\": [\nnull,\n1,\n0,\nnull\n]\n},\n"
+            + "{ \"name\": \"src/main/plsql/app.pkb\",\n\"coverage\": [\n3\n]\n}\n]}";
+
+    /**
+     * testRenderFromCoveralls.
+     *
+     * Given : the output of a coveralls reporter When : it is parsed and rendered
+     * Then : the coverage reports hold the hits of each relevant line
+     */
+    @Test
+    public void testRenderFromCoveralls() throws Exception {
+        CoverallsParser parser = new CoverallsParser();
+        try (PrintStream out = parser.getPrintStream()) {
+            for (String line : COVERALLS.split("\n")) {
+                out.println(line);
+            }
+        }
+        CoverageData coverage = parser.getCoverage();
+
+        assertArrayEquals(new long[] { -1, 1, 0, -1 }, coverage.getHits("src/main/plsql/betwnstr.fnc"));
+        assertEquals(3, coverage.getLinesValid());
+        assertEquals(2, coverage.getLinesCovered());
+
+        String sonar = render(CoverageFormat.SONAR, coverage);
+        assertTrue(sonar.contains("<file path=\"src/main/plsql/betwnstr.fnc\">\n"
+                + "<lineToCover lineNumber=\"2\" covered=\"true\"/>\n"
+                + "<lineToCover lineNumber=\"3\" covered=\"false\"/>\n</file>"));
+        // Files are sorted by name.
+        assertTrue(sonar.indexOf("app.pkb") < sonar.indexOf("betwnstr.fnc"));
+
+        String cobertura = render(CoverageFormat.COBERTURA, coverage);
+        assertTrue(cobertura.contains("lines-covered=\"2\" lines-valid=\"3\""));
+        assertTrue(cobertura.contains("<line number=\"1\" hits=\"3\" branch=\"false\"/>"));
+
+        CoverallsParser reparsed = new CoverallsParser();
+        try (PrintStream out = reparsed.getPrintStream()) {
+            out.print(render(CoverageFormat.COVERALLS, coverage));
+        }
+        assertEquals(coverage.getFiles(), reparsed.getCoverage().getFiles());
+    }
+
+    /**
+     * testMergeCoverage.
+     *
+     * Given : the coverage of a file in two runs When : they are merged Then : the
+     * hits are summed, a line being relevant if it is relevant in any run
+     */
+    @Test
+    public void testMergeCoverage() {
+        CoverageData coverage = new CoverageData();
+        coverage.add("a.pkb", new long[] { -1, 1, 0 });
+        coverage.add("a.pkb", new long[] { 2, 0, 0, 4 });
+
+        assertArrayEquals(new long[] { 2, 1, 0, 4 }, coverage.getHits("a.pkb"));
+    }
+
+    /**
+     * testCoverageDataFiles.
+     *
+     * Given : the coverage of two executions saved to data files When : the files
+     * are read and merged Then : the merged coverage sums the hits of both
+     */
+    @Test
+    public void testCoverageDataFiles() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        CoverageData first = new CoverageData();
+        first.add("src/main/plsql/betwnstr.fnc", new long[] { -1, 1, 0, -1 });
+        first.write(new File(directory, "unit.coverage"));
+        CoverageData second = new CoverageData();
+        second.add("src/main/plsql/betwnstr.fnc", new long[] { -1, 0, 2 });
+        second.add("src/main/plsql/app.pkb", new long[] { 3 });
+        second.write(new File(directory, "integration.coverage"));
+
+        CoverageData merged = CoverageData.read(new File(directory, "unit.coverage"));
+        merged.addAll(CoverageData.read(new File(directory, "integration.coverage")));
+
+        assertArrayEquals(new long[] { -1, 1, 2, -1 }, merged.getHits("src/main/plsql/betwnstr.fnc"));
+        assertArrayEquals(new long[] { 3 }, merged.getHits("src/main/plsql/app.pkb"));
+        assertEquals(3, merged.getLinesCovered());
+    }
+
+    private static String render(CoverageFormat format, CoverageData coverage) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.render(coverage, out, null);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.utplsql.maven.plugin.helper.DataSourceHelper;
+
+import oracle.jdbc.pool.OracleDataSource;
+import oracle.ucp.jdbc.PoolDataSource;
+
+public class DataSourceHelperTest {
+
+    private static final String URL = "jdbc:oracle:thin:@localhost:1521:xe";
+
+    /**
+     * testUnpooledDataSource.
+     *
+     * Given : connection settings with properties When : an unpooled data source
+     * is requested Then : a new Oracle data source with these properties is
+     * returned
+     */
+    @Test
+    public void testUnpooledDataSource() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("oracle.net.CONNECT_TIMEOUT", "5000");
+
+        DataSource ds = DataSourceHelper.getDataSource(URL, "app", "pass", properties, false);
+
+        assertTrue(ds instanceof OracleDataSource);
+        assertEquals(URL, ((OracleDataSource) ds).getURL());
+        assertEquals("5000", ((OracleDataSource) ds).getConnectionProperties().getProperty("oracle.net.CONNECT_TIMEOUT"));
+        assertNotSame(ds, DataSourceHelper.getDataSource(URL, "app", "pass", properties, false));
+    }
+
+    /**
+     * testPooledDataSourceIsShared.
+     *
+     * Given : the same connection settings When : a pooled data source is
+     * requested twice Then : the same pool is returned, and a different user gets
+     * its own pool
+     */
+    @Test
+    public void testPooledDataSourceIsShared() throws Exception {
+        Properties properties = new Properties();
+
+        DataSource ds = DataSourceHelper.getDataSource(URL, "app", "pass", properties, true);
+
+        assertTrue(ds instanceof PoolDataSource);
+        assertSame(ds, DataSourceHelper.getDataSource(URL, "app", "pass", new Properties(), true));
+        assertNotSame(ds, DataSourceHelper.getDataSource(URL, "tests", "pass", properties, true));
+    }
+
+    /**
+     * testPoolsAreClosedForNextBuild.
+     *
+     * Given : a pooled data source opened by a build When : another build starts
+     * in the same JVM Then : a new pool is returned, validating the connections
+     * only after an idle time
+     */
+    @Test
+    public void testPoolsAreClosedForNextBuild() throws Exception {
+        DataSourceHelper.startBuild("build-1");
+        DataSource ds = DataSourceHelper.getDataSource(URL, "app", "pass", new Properties(), true);
+
+        DataSourceHelper.startBuild("build-1");
+        assertSame(ds, DataSourceHelper.getDataSource(URL, "app", "pass", new Properties(), true));
+
+        DataSourceHelper.startBuild("build-2");
+        DataSource next = DataSourceHelper.getDataSource(URL, "app", "pass", new Properties(), true);
+        assertNotSame(ds, next);
+        assertEquals(DataSourceHelper.SECONDS_TO_TRUST_IDLE_CONNECTION,
+                ((PoolDataSource) next).getSecondsToTrustIdleConnection());
+        DataSourceHelper.closePools();
+    }
+}
@@ -0,0 +1,49 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.utplsql.maven.plugin.deploy.DeploymentPlan;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+public class DeploymentPlanTest {
+
+    /**
+     * testDependencies.
+     *
+     * Given : package specifications, bodies and a test package When : the
+     * dependencies are computed Then : a body waits for its specification, a
+     * script waits for the specifications it references outside comments and
+     * strings, and nothing waits for a body
+     */
+    @Test
+    public void testDependencies() {
+        DeploymentPlan plan = new DeploymentPlan();
+        plan.add("src/main/plsql/strings.pks", new DatabaseObject("APP", "STRINGS", "PKS"),
+                "create or replace package strings as\n  -- used by app\n  function trim_all(a varchar2)"
+                        + " return varchar2;\nend;\n/");
+        plan.add("src/main/plsql/app.pks", new DatabaseObject("APP", "APP", "PKS"),
+                "create or replace package app as\n  c_name constant varchar2(10) := 'strings';\n"
+                        + "  procedure run;\nend;\n/");
+        plan.add("src/main/plsql/app.pkb", new DatabaseObject("APP", "APP", "PACKAGE BODY"),
+                "create or replace package body app as\n  procedure run is\n  begin\n"
+                        + "    dbms_output.put_line(Strings.trim_all(c_name)); /* strings */\n  end;\nend;\n/");
+        plan.add("src/test/plsql/test_app.pkg", new DatabaseObject("APP", "TEST_APP", "PKG"),
+                "create or replace package test_app as\n  --%suite\n  procedure run;\nend;\n/\n"
+                        + "create or replace package body test_app as\n  procedure run is begin app.run; end;\nend;\n/");
+
+        Map<String, Set<String>> dependencies = plan.getDependencies();
+        assertEquals(Collections.emptySet(), dependencies.get("src/main/plsql/strings.pks"));
+        assertEquals(Collections.emptySet(), dependencies.get("src/main/plsql/app.pks"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("src/main/plsql/app.pks", "src/main/plsql/strings.pks")),
+                dependencies.get("src/main/plsql/app.pkb"));
+        assertEquals(Collections.singleton("src/main/plsql/app.pks"),
+                dependencies.get("src/test/plsql/test_app.pkg"));
+    }
+}
@@ -0,0 +1,56 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.runner.DurationHistory;
+
+public class DurationHistoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testScheduleLongestFirst.
+     *
+     * Given : a saved run time history When : the units are scheduled Then : the
+     * longest units come first and unknown units take the average run time
+     */
+    @Test
+    public void testScheduleLongestFirst() throws Exception {
+        File file = new File(folder.getRoot(), "utplsql/test-durations.properties");
+
+        DurationHistory history = new DurationHistory(file);
+        Map<String, Long> durations = new LinkedHashMap<>();
+        durations.put("app.test_short", 1000L);
+        durations.put("app:org.long", 480000L);
+        durations.put("app.test_medium", 20000L);
+        history.record(durations);
+        history.save();
+
+        DurationHistory loaded = new DurationHistory(file);
+        assertEquals(Long.valueOf(480000L), loaded.getDuration("app:org.long"));
+        assertEquals(Arrays.asList(2, 3, 1, 0),
+                loaded.schedule(Arrays.asList("app.test_short", "app.test_medium", "app:org.long", "app.test_new")));
+    }
+
+    /**
+     * testScheduleWithoutHistory.
+     *
+     * Given : no run time history When : the units are scheduled Then : the units
+     * keep their order
+     */
+    @Test
+    public void testScheduleWithoutHistory() throws Exception {
+        DurationHistory history = new DurationHistory(new File(folder.getRoot(), "missing.properties"));
+
+        assertEquals(Arrays.asList(0, 1, 2), history.schedule(Arrays.asList("a", "b", "c")));
+    }
+}
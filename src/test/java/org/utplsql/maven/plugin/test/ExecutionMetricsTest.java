@@ -0,0 +1,52 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.metrics.ExecutionMetrics;
+
+public class ExecutionMetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testWriteMetrics.
+     *
+     * Given : timed phases and counters When : the metrics are written Then : the
+     * JSON and Prometheus files hold every phase and counter
+     */
+    @Test
+    public void testWriteMetrics() throws Exception {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        metrics.start("scan").stop();
+        metrics.start("run").stop();
+        metrics.start("scan").stop();
+        metrics.add("reportBytes", 100);
+        metrics.add("reportBytes", 20);
+        metrics.add("sourceFiles", 3);
+
+        assertEquals(2, metrics.getPhases().size());
+        assertEquals("scan", metrics.getPhases().keySet().iterator().next());
+        assertEquals(Long.valueOf(120), metrics.getCounter("reportBytes"));
+
+        File json = new File(folder.getRoot(), "target/utplsql-metrics.json");
+        metrics.writeJson(json);
+        String jsonContent = new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8);
+        assertTrue(jsonContent.contains("\"phases\": {\n    \"scan\": "));
+        assertTrue(jsonContent.contains("\"reportBytes\": 120,\n    \"sourceFiles\": 3\n"));
+
+        File prometheus = new File(folder.getRoot(), "target/utplsql.prom");
+        metrics.writePrometheus(prometheus);
+        String prometheusContent = new String(Files.readAllBytes(prometheus.toPath()), StandardCharsets.UTF_8);
+        assertTrue(prometheusContent.contains("utplsql_phase_seconds{phase=\"run\"} "));
+        assertTrue(prometheusContent.contains("utplsql_report_bytes 120\n"));
+    }
+}
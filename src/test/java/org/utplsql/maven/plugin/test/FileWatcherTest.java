@@ -0,0 +1,54 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.incremental.FileWatcher;
+
+public class FileWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testAwaitChanges.
+     *
+     * Given : a watched source directory When : a file is modified and another
+     * one is created in a new subdirectory Then : both are reported, relative to
+     * the base directory
+     */
+    @Test(timeout = 30000)
+    public void testAwaitChanges() throws Exception {
+        File baseDir = folder.newFolder("project");
+        File sources = new File(baseDir, "src/main/plsql");
+        sources.mkdirs();
+        write(new File(sources, "betwnstr.pkb"), "body");
+
+        try (FileWatcher watcher = new FileWatcher(baseDir, Collections.singletonList(sources))) {
+            write(new File(sources, "betwnstr.pkb"), "body changed");
+            File subdirectory = new File(sources, "app");
+            subdirectory.mkdirs();
+            write(new File(subdirectory, "app.pks"), "spec");
+
+            LinkedHashSet<String> changes = new LinkedHashSet<>();
+            while (changes.size() < 2) {
+                changes.addAll(watcher.awaitChanges(500));
+            }
+            assertEquals(new LinkedHashSet<>(Arrays.asList("src/main/plsql/betwnstr.pkb",
+                    "src/main/plsql/app/app.pks")), changes);
+        }
+    }
+
+    private static void write(File file, String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
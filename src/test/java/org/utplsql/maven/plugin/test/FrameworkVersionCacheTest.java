@@ -0,0 +1,64 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+
+import org.junit.Test;
+import org.utplsql.api.Version;
+import org.utplsql.api.db.DatabaseInformation;
+import org.utplsql.maven.plugin.helper.FrameworkVersionCache;
+
+public class FrameworkVersionCacheTest {
+
+    private static final String URL = "jdbc:oracle:thin:@localhost:1521:xe";
+
+    /**
+     * testIsCompatible.
+     *
+     * Given : framework and java-api versions When : their compatibility is
+     * checked Then : only frameworks of the same major version and at least as
+     * recent are compatible
+     */
+    @Test
+    public void testIsCompatible() {
+        assertTrue(FrameworkVersionCache.isCompatible(Version.create("3.1.8.3188"), "3.1.8"));
+        assertTrue(FrameworkVersionCache.isCompatible(Version.create("v3.1.10.3349"), "3.1.8-SNAPSHOT"));
+        assertTrue(FrameworkVersionCache.isCompatible(Version.create("3.2.0"), "3.1.8"));
+        assertFalse(FrameworkVersionCache.isCompatible(Version.create("3.1.7.3085"), "3.1.8"));
+        assertFalse(FrameworkVersionCache.isCompatible(Version.create("4.0.0"), "3.1.8"));
+        assertFalse(FrameworkVersionCache.isCompatible(Version.create("unknown"), "3.1.8"));
+    }
+
+    /**
+     * testVersionIsProbedOncePerBuild.
+     *
+     * Given : a schema whose framework is reinstalled between two builds run in
+     * the same JVM When : the version is requested by both builds Then : each
+     * build probes the version once and the second one sees the new version
+     */
+    @Test
+    public void testVersionIsProbedOncePerBuild() throws Exception {
+        Connection connection = mock(Connection.class);
+        DatabaseInformation databaseInformation = mock(DatabaseInformation.class);
+        Version installed = Version.create("3.1.7");
+        Version reinstalled = Version.create("3.1.8");
+        when(databaseInformation.getUtPlsqlFrameworkVersion(connection)).thenReturn(installed, reinstalled);
+
+        FrameworkVersionCache.startBuild("build-1");
+        assertSame(installed, FrameworkVersionCache.getFrameworkVersion(connection, databaseInformation, URL, "app"));
+        assertSame(installed, FrameworkVersionCache.getFrameworkVersion(connection, databaseInformation, URL, "APP"));
+
+        FrameworkVersionCache.startBuild("build-2");
+        assertSame(reinstalled,
+                FrameworkVersionCache.getFrameworkVersion(connection, databaseInformation, URL, "app"));
+        verify(databaseInformation, times(2)).getUtPlsqlFrameworkVersion(connection);
+        FrameworkVersionCache.clear();
+    }
+}
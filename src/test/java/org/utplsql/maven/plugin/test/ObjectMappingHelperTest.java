@@ -0,0 +1,61 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.utplsql.api.FileMapperOptions;
+import org.utplsql.api.KeyValuePair;
+import org.utplsql.maven.plugin.helper.ObjectMappingHelper;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+public class ObjectMappingHelperTest {
+
+    /**
+     * testDefaultMapping.
+     *
+     * Given : the default mapping options When : files are mapped Then : the owner
+     * comes from the file name if present, from the default owner otherwise
+     */
+    @Test
+    public void testDefaultMapping() {
+        FileMapperOptions options = new FileMapperOptions(new ArrayList<>());
+
+        DatabaseObject body = ObjectMappingHelper.toDatabaseObject("src/main/plsql/app.pkg_orders.bdy", options,
+                "SCOTT");
+        assertEquals("APP.PKG_ORDERS", body.toString());
+        assertEquals("PACKAGE BODY", body.getType());
+
+        DatabaseObject spec = ObjectMappingHelper.toDatabaseObject("src/main/plsql/pkg_orders.spc", options,
+                "SCOTT");
+        assertEquals("SCOTT.PKG_ORDERS", spec.toString());
+        assertEquals("SPC", spec.getType());
+
+        assertNull(ObjectMappingHelper.toDatabaseObject("readme", options, "SCOTT"));
+    }
+
+    /**
+     * testCustomMapping.
+     *
+     * Given : custom mapping options When : a file is mapped Then : the custom
+     * pattern, subexpressions, owner and type mappings are used
+     */
+    @Test
+    public void testCustomMapping() {
+        FileMapperOptions options = new FileMapperOptions(new ArrayList<>());
+        options.setObjectOwner("app");
+        options.setRegexPattern("\\w+[\\\\\\/](\\w+)[\\\\\\/](\\w+)[\\\\\\/](\\w+)\\.(\\w{3})");
+        options.setOwnerSubExpression(9);
+        options.setNameSubExpression(3);
+        options.setTypeSubExpression(4);
+        options.setTypeMappings(Arrays.asList(new KeyValuePair("sql", "procedure")));
+
+        DatabaseObject object = ObjectMappingHelper.toDatabaseObject("scripts/sources/orders/load_orders.sql", options,
+                "SCOTT");
+        assertEquals("APP.LOAD_ORDERS", object.toString());
+        assertEquals("PROCEDURE", object.getType());
+    }
+}
@@ -0,0 +1,65 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.deploy.DeploymentPlan;
+import org.utplsql.maven.plugin.deploy.ParallelDeployer;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+
+public class ParallelDeployerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testDeployTwice.
+     *
+     * Given : a plan creating a table and a package When : it is deployed twice
+     * on the same schema Then : the second deployment succeeds, the existing
+     * table being kept
+     */
+    @Test
+    public void testDeployTwice() throws Exception {
+        String table = "create table to_test_me (a varchar2(30));\n";
+        String pkg = "create or replace package app as\n  procedure run;\nend;\n/\n";
+        Files.write(folder.newFile("to_test_me.tab").toPath(), table.getBytes(StandardCharsets.UTF_8));
+        Files.write(folder.newFile("app.pks").toPath(), pkg.getBytes(StandardCharsets.UTF_8));
+        DeploymentPlan plan = new DeploymentPlan();
+        plan.add("to_test_me.tab", new DatabaseObject("APP", "TO_TEST_ME", "TAB"), table);
+        plan.add("app.pks", new DatabaseObject("APP", "APP", "PKS"), pkg);
+
+        Statement statement = mock(Statement.class);
+        when(statement.execute("create table to_test_me (a varchar2(30))")).thenReturn(false)
+                .thenThrow(new SQLException("ORA-00955: name is already used by an existing object", "42000", 955));
+        ResultSet invalidObjects = mock(ResultSet.class);
+        PreparedStatement query = mock(PreparedStatement.class);
+        when(query.executeQuery()).thenReturn(invalidObjects);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(anyString())).thenReturn(query);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        ParallelDeployer deployer = new ParallelDeployer(dataSource, folder.getRoot(), 2);
+        assertEquals(Collections.emptyList(), deployer.deploy(plan));
+        assertEquals(Collections.emptyList(), deployer.deploy(plan));
+    }
+}
@@ -0,0 +1,233 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.model.DatabaseObject;
+import org.utplsql.maven.plugin.reporter.FailFastListener;
+import org.utplsql.maven.plugin.reporter.LocalReporters;
+import org.utplsql.maven.plugin.reporter.RealtimeEventParser;
+import org.utplsql.maven.plugin.reporter.TestEventListener;
+import org.utplsql.maven.plugin.runner.FailedTests;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import oracle.jdbc.OracleConnection;
+
+public class RealtimeEventParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testLocalReporters.
+     *
+     * Given : the output of a realtime reporter When : it is parsed with several
+     * local reporters Then : each report is derived from the same events
+     */
+    @Test
+    public void testLocalReporters() throws Exception {
+        ByteArrayOutputStream junit = new ByteArrayOutputStream();
+        ByteArrayOutputStream sonar = new ByteArrayOutputStream();
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+
+        RealtimeEventParser parser = new RealtimeEventParser(Arrays.asList(
+                LocalReporters.LOCAL_JUNIT_REPORTER.createListener(junit, Collections.emptyMap()),
+                LocalReporters.LOCAL_SONAR_TEST_REPORTER.createListener(sonar,
+                        Collections.singletonMap(new DatabaseObject("APP", "TEST_BETWNSTR", "PACKAGE BODY"),
+                                "src/test/plsql/test_betwnstr.pkb")),
+                LocalReporters.LOCAL_JSON_SUMMARY_REPORTER.createListener(summary, Collections.emptyMap())));
+        try (PrintStream events = parser.getPrintStream()) {
+            for (String line : readEvents()) {
+                events.println(line);
+            }
+        }
+
+        Document junitReport = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(junit.toByteArray()));
+        Element suite = (Element) junitReport.getElementsByTagName("testsuite").item(0);
+        assertEquals(1, junitReport.getElementsByTagName("testsuite").getLength());
+        assertEquals("app.test_betwnstr", suite.getAttribute("name"));
+        assertEquals("3", suite.getAttribute("tests"));
+        assertEquals("1", suite.getAttribute("failures"));
+        assertEquals("1", suite.getAttribute("skipped"));
+        assertEquals("0.020", suite.getAttribute("time"));
+        Element failure = (Element) junitReport.getElementsByTagName("failure").item(0);
+        assertEquals("Actual: '12' (varchar2) was expected to equal: '123' (varchar2)",
+                failure.getAttribute("message"));
+        assertEquals("debug <output>\n", junitReport.getElementsByTagName("system-out").item(0).getTextContent());
+
+        String sonarReport = new String(sonar.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(sonarReport.contains("<file path=\"src/test/plsql/test_betwnstr.pkb\">"));
+        assertTrue(sonarReport.contains("<testCase name=\"NORMAL_CASE\" duration=\"12\">"));
+
+        String summaryReport = new String(summary.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(summaryReport.contains("\"tests\": 3,"));
+        assertTrue(summaryReport.contains("\"failures\": 1,"));
+        assertTrue(summaryReport.contains("\"id\": \"app.test_betwnstr.zero_start_position\""));
+    }
+
+    /**
+     * testSurefireReporter.
+     *
+     * Given : the output of a realtime reporter When : it is parsed with the
+     * surefire reporter Then : a report file is written per suite holding tests,
+     * with the suite counters
+     */
+    @Test
+    public void testSurefireReporter() throws Exception {
+        File directory = new File(folder.getRoot(), "surefire-reports");
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+
+        RealtimeEventParser parser = new RealtimeEventParser(Arrays.asList(
+                LocalReporters.LOCAL_SUREFIRE_REPORTER.createDirectoryListener(directory, Collections.emptyMap()),
+                LocalReporters.LOCAL_SUREFIRE_REPORTER.createListener(console, Collections.emptyMap())));
+        try (PrintStream events = parser.getPrintStream()) {
+            for (String line : readEvents()) {
+                events.println(line);
+            }
+        }
+
+        assertEquals(Collections.singletonList("TEST-app.test_betwnstr.xml"), Arrays.asList(directory.list()));
+        Document report = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(directory, "TEST-app.test_betwnstr.xml"));
+        Element suite = report.getDocumentElement();
+        assertEquals("testsuite", suite.getTagName());
+        assertEquals("3", suite.getAttribute("tests"));
+        assertEquals("1", suite.getAttribute("failures"));
+        assertEquals("0", suite.getAttribute("errors"));
+        assertEquals("1", suite.getAttribute("skipped"));
+        assertEquals(3, report.getElementsByTagName("testcase").getLength());
+        assertEquals(1, report.getElementsByTagName("skipped").getLength());
+
+        assertEquals("Tests run: 3, Failures: 1, Errors: 0, Skipped: 1, Time elapsed: 0.020 s - in app.test_betwnstr",
+                new String(console.toByteArray(), StandardCharsets.UTF_8).trim());
+    }
+
+    /**
+     * testFailFast.
+     *
+     * Given : a run watched for its first failing test When : the realtime events
+     * are parsed Then : the session running the tests is cancelled once
+     */
+    @Test
+    public void testFailFast() throws Exception {
+        Connection connection = mock(Connection.class);
+        OracleConnection oracleConnection = mock(OracleConnection.class);
+        when(connection.unwrap(OracleConnection.class)).thenReturn(oracleConnection);
+
+        FailFastListener failFast = new FailFastListener(1);
+        failFast.watch(connection);
+        RealtimeEventParser parser = new RealtimeEventParser(Collections.singletonList(failFast));
+        try (PrintStream events = parser.getPrintStream()) {
+            for (String line : readEvents()) {
+                events.println(line);
+            }
+        }
+
+        assertTrue(failFast.isStopped());
+        assertEquals(1, failFast.getFailures());
+        verify(oracleConnection, times(1)).cancel();
+
+        FailFastListener lenient = new FailFastListener(2);
+        RealtimeEventParser lenientParser = new RealtimeEventParser(Collections.singletonList(lenient));
+        try (PrintStream events = lenientParser.getPrintStream()) {
+            for (String line : readEvents()) {
+                events.println(line);
+            }
+        }
+        assertFalse(lenient.isStopped());
+    }
+
+    /**
+     * testFailedTests.
+     *
+     * Given : the failed tests of a previous run When : a narrowed run is recorded
+     * Then : its failures are added to the failures of the tests it did not run
+     */
+    @Test
+    public void testFailedTests() throws Exception {
+        File file = new File(folder.getRoot(), "utplsql/failed-tests.txt");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), Arrays.asList("app.test_betwnstr.normal_case", "app.test_other.failing"),
+                StandardCharsets.UTF_8);
+
+        FailedTests failedTests = new FailedTests(file);
+        assertEquals(Arrays.asList("app.test_betwnstr.normal_case", "app.test_other.failing"),
+                failedTests.getPaths());
+        RealtimeEventParser parser = new RealtimeEventParser(Collections.singletonList(failedTests));
+        try (PrintStream events = parser.getPrintStream()) {
+            for (String line : readEvents()) {
+                events.println(line);
+            }
+        }
+        assertEquals(1, failedTests.getFailureCount());
+
+        failedTests.save(false);
+        assertEquals(Arrays.asList("app.test_betwnstr.zero_start_position", "app.test_other.failing"),
+                new FailedTests(file).getPaths());
+
+        failedTests.save(true);
+        assertEquals(Collections.singletonList("app.test_betwnstr.zero_start_position"),
+                new FailedTests(file).getPaths());
+    }
+
+    /**
+     * testMalformedEvent.
+     *
+     * Given : a realtime reporter output holding a malformed event When : it is
+     * parsed Then : the error is kept and the following events are still parsed
+     */
+    @Test
+    public void testMalformedEvent() throws Exception {
+        TestEventListener listener = mock(TestEventListener.class);
+
+        RealtimeEventParser parser = new RealtimeEventParser(Collections.singletonList(listener));
+        try (PrintStream events = parser.getPrintStream()) {
+            events.println("<?xml version=\"1.0\"?>");
+            events.println("<event type=\"post-test\"><test id=\"app.test_betwnstr.normal_case\"></event>");
+            events.println("<?xml version=\"1.0\"?>");
+            events.println("<event type=\"post-run\"><run><executionTime>.5</executionTime></run></event>");
+        }
+
+        assertNotNull(parser.getError());
+        verify(listener).runFinished(0.5);
+        verify(listener, times(0)).testFinished(any());
+    }
+
+    private List<String> readEvents() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/realtime-events.txt")) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return Arrays.asList(new String(content.toByteArray(), StandardCharsets.UTF_8).split("\n"));
+        }
+    }
+}
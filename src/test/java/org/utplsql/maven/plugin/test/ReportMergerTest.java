@@ -0,0 +1,128 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.reporter.ReportMerger;
+
+public class ReportMergerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testMergeSonarTestReports.
+     *
+     * Given : two sonar test reports When : they are merged Then : the files of
+     * both reports are under a single root
+     */
+    @Test
+    public void testMergeSonarTestReports() throws Exception {
+        File part1 = write("1", "<testExecutions version=\"1\">\n<file path=\"a.pkb\">\n"
+                + "<testCase name=\"t1\" duration=\"1\" >\n</testCase>\n</file>\n</testExecutions>");
+        File part2 = write("2", "<testExecutions version=\"1\">\n<file path=\"b.pkb\">\n"
+                + "<testCase name=\"t2\" duration=\"1\" >\n</testCase>\n</file>\n</testExecutions>");
+        File target = new File(folder.getRoot(), "sonar-test-reporter.xml");
+
+        ReportMerger.merge(Arrays.asList(part1, part2), target);
+
+        String merged = read(target);
+        assertTrue(merged.startsWith("<testExecutions version=\"1\">"));
+        assertTrue(merged.indexOf("<file path=\"a.pkb\">") < merged.indexOf("<file path=\"b.pkb\">"));
+        assertEquals(1, count(merged, "<testExecutions"));
+    }
+
+    /**
+     * testFailedMergeKeepsPreviousReport.
+     *
+     * Given : a previous report and a truncated part When : the parts are merged
+     * Then : the merge fails and the previous report is left untouched
+     */
+    @Test
+    public void testFailedMergeKeepsPreviousReport() throws Exception {
+        File part1 = write("1", "<testExecutions version=\"1\">\n</testExecutions>");
+        File part2 = write("2", "<testExecutions version=\"1\">\n<file path=\"b.pkb\">");
+        File target = new File(folder.getRoot(), "sonar-test-reporter.xml");
+        Files.write(target.toPath(), "previous".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            ReportMerger.merge(Arrays.asList(part1, part2), target);
+            fail("The truncated part should not be merged");
+        } catch (IOException e) {
+            assertEquals("previous", read(target));
+        }
+    }
+
+    /**
+     * testMergeCoverageReports.
+     *
+     * Given : two sonar coverage reports covering the same file When : they are
+     * merged Then : a line is covered if it is covered in any report
+     */
+    @Test
+    public void testMergeCoverageReports() throws Exception {
+        File part1 = write("1", "<coverage version=\"1\">\n<file path=\"a.pkb\">\n"
+                + "<lineToCover lineNumber=\"1\" covered=\"true\"/>\n"
+                + "<lineToCover lineNumber=\"2\" covered=\"false\"/>\n</file>\n</coverage>");
+        File part2 = write("2", "<coverage version=\"1\">\n<file path=\"a.pkb\">\n"
+                + "<lineToCover lineNumber=\"1\" covered=\"false\"/>\n"
+                + "<lineToCover lineNumber=\"2\" covered=\"true\"/>\n</file>\n</coverage>");
+        File target = new File(folder.getRoot(), "coverage-sonar-reporter.xml");
+
+        ReportMerger.merge(Arrays.asList(part1, part2), target);
+
+        String merged = read(target);
+        assertEquals(1, count(merged, "<file "));
+        assertEquals(2, count(merged, "covered=\"true\""));
+        assertEquals(0, count(merged, "covered=\"false\""));
+    }
+
+    /**
+     * testMergeTextAndHtmlReports.
+     *
+     * Given : text and HTML reports When : they are merged Then : text reports are
+     * concatenated and HTML reports are kept one per part
+     */
+    @Test
+    public void testMergeTextAndHtmlReports() throws Exception {
+        File target = new File(folder.getRoot(), "documentation.txt");
+        ReportMerger.merge(Arrays.asList(write("1", "first\n"), write("2", "second\n")), target);
+        assertEquals("first\nsecond\n", read(target));
+
+        File html = new File(folder.getRoot(), "coverage.html");
+        List<File> written = ReportMerger.merge(
+                Arrays.asList(write("3", "<!DOCTYPE html><html/>"), write("4", "<!DOCTYPE html><html/>")), html);
+        assertEquals(2, written.size());
+        assertEquals("coverage-1.html", written.get(0).getName());
+        assertEquals("coverage-2.html", written.get(1).getName());
+    }
+
+    private File write(String name, String content) throws Exception {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String read(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,102 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.reporter.Compression;
+import org.utplsql.maven.plugin.reporter.ReportSink;
+
+public class ReportSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testCloseMovesReportIntoPlace.
+     *
+     * Given : a report sink When : lines are printed and the sink is closed Then :
+     * the report file is written in UTF-8 and the counters are filled
+     */
+    @Test
+    public void testCloseMovesReportIntoPlace() throws Exception {
+        File file = new File(folder.getRoot(), "report.xml");
+
+        ReportSink sink = new ReportSink(file);
+        sink.getPrintStream().println("<coverage version=\"1\">");
+        sink.getPrintStream().println("<file path=\"é\"/>");
+        assertFalse(file.exists());
+
+        sink.close();
+
+        assertTrue(file.exists());
+        assertEquals("<coverage version=\"1\">" + System.lineSeparator() + "<file path=\"é\"/>"
+                + System.lineSeparator(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        assertEquals(file.length(), sink.getBytesWritten());
+        assertEquals(2, sink.getLinesWritten());
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    /**
+     * testDiscardKeepsPreviousReport.
+     *
+     * Given : an existing report file When : a sink on this file is discarded Then
+     * : the previous report is kept and no temporary file is left behind
+     */
+    @Test
+    public void testDiscardKeepsPreviousReport() throws Exception {
+        File file = new File(folder.getRoot(), "report.txt");
+        Files.write(file.toPath(), "previous".getBytes(StandardCharsets.UTF_8));
+
+        ReportSink sink = new ReportSink(file);
+        sink.getPrintStream().println("partial");
+        sink.discard();
+
+        assertEquals("previous", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    /**
+     * testGzipCompression.
+     *
+     * Given : a report sink with gzip compression When : lines are printed and the
+     * sink is closed Then : the report file is gzipped and the counters hold the
+     * uncompressed size
+     */
+    @Test
+    public void testGzipCompression() throws Exception {
+        File file = Compression.of("gzip").apply(new File(folder.getRoot(), "coverage.html"));
+        assertEquals("coverage.html.gz", file.getName());
+
+        StringBuilder expected = new StringBuilder();
+        ReportSink sink = new ReportSink(file, Compression.GZIP);
+        for (int i = 0; i < 1000; i++) {
+            sink.getPrintStream().print("<tr><td>line " + i + "</td></tr>\n");
+            expected.append("<tr><td>line ").append(i).append("</td></tr>\n");
+        }
+        sink.close();
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+        }
+        assertEquals(expected.toString(), new String(content.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected.length(), sink.getBytesWritten());
+        assertEquals(1000, sink.getLinesWritten());
+        assertTrue(file.length() < sink.getBytesWritten() / 4);
+    }
+}
@@ -0,0 +1,98 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mock;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Struct;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.utplsql.api.reporter.Reporter;
+import org.utplsql.api.reporter.ReporterFactory;
+import org.utplsql.maven.plugin.reporter.ReporterBatch;
+
+import oracle.jdbc.OracleConnection;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(ReporterFactory.class)
+public class ReporterBatchTest {
+
+    private static final List<String> TYPE_NAMES = Arrays.asList("UT_DOCUMENTATION_REPORTER",
+            "UT_REALTIME_REPORTER", "UT_COVERALLS_REPORTER");
+
+    /**
+     * testCreateAll.
+     *
+     * Given : three reporters When : they are created by a batch Then : a single
+     * call creates them, none being initialized one by one, and a reporter not
+     * announced is still initialized
+     */
+    @Test
+    public void testCreateAll() throws Exception {
+        Connection connection = mock(Connection.class);
+        CallableStatement statement = mock(CallableStatement.class);
+        Struct struct = mock(Struct.class);
+        when(connection.isWrapperFor(OracleConnection.class)).thenReturn(true);
+        when(connection.prepareCall(anyString())).thenReturn(statement);
+        when(statement.getObject(anyInt())).thenReturn(struct);
+        when(struct.getAttributes()).thenReturn(new Object[] { "UT_DOCUMENTATION_REPORTER", "ID" });
+        ReporterFactory reporterFactory = mock(ReporterFactory.class);
+        Reporter announced = mock(Reporter.class);
+        when(reporterFactory.createReporter(anyString())).thenReturn(announced);
+
+        ReporterBatch reporterBatch = new ReporterBatch(reporterFactory, connection);
+        reporterBatch.createAll(TYPE_NAMES);
+        for (String typeName : TYPE_NAMES) {
+            assertTrue(reporterBatch.create(typeName).isInit());
+        }
+
+        verify(connection).prepareCall("begin\n  ? := UT_DOCUMENTATION_REPORTER();\n"
+                + "  ? := UT_REALTIME_REPORTER();\n  ? := UT_COVERALLS_REPORTER();\nend;");
+        verify(statement, times(1)).execute();
+        verify(reporterFactory, never()).createReporter(anyString());
+
+        assertSame(announced, reporterBatch.create("UT_DOCUMENTATION_REPORTER"));
+        verify(announced).init(connection);
+    }
+
+    /**
+     * testCreateAllFailure.
+     *
+     * Given : a database refusing the batch When : the reporters are created Then
+     * : each of them is initialized one by one
+     */
+    @Test
+    public void testCreateAllFailure() throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.isWrapperFor(OracleConnection.class)).thenReturn(true);
+        when(connection.prepareCall(anyString())).thenThrow(new SQLException("PLS-00201"));
+        ReporterFactory reporterFactory = mock(ReporterFactory.class);
+        Reporter reporter = mock(Reporter.class);
+        when(reporterFactory.createReporter(anyString())).thenReturn(reporter);
+
+        ReporterBatch reporterBatch = new ReporterBatch(reporterFactory, connection);
+        reporterBatch.createAll(TYPE_NAMES);
+        for (String typeName : TYPE_NAMES) {
+            assertSame(reporter, reporterBatch.create(typeName));
+        }
+
+        verify(reporter, times(TYPE_NAMES.size())).init(any(Connection.class));
+        assertEquals("begin\nend;", ReporterBatch.buildBlock(Arrays.asList()));
+    }
+}
@@ -0,0 +1,105 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.model.Resource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.helper.SQLScannerHelper;
+
+public class SQLScannerHelperTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testIncludesAndExcludes.
+     *
+     * Given : a resource with Ant includes and excludes When : it is scanned Then :
+     * the matching files are found relative to the base directory, in order
+     */
+    @Test
+    public void testIncludesAndExcludes() throws Exception {
+        File baseDir = folder.getRoot();
+        create(baseDir, "src/main/plsql/b.pkb", "src/main/plsql/a.pks", "src/main/plsql/pkg/c.pkb",
+                "src/main/plsql/generated/d.pkb", "src/main/plsql/pkg/generated/e.pkb", "src/main/plsql/readme.txt");
+
+        Resource resource = new Resource();
+        resource.setDirectory("src/main/plsql");
+        resource.setIncludes(Arrays.asList("**/*.pk?"));
+        resource.setExcludes(Arrays.asList("generated/**", "**/e.pkb"));
+
+        List<String> files = SQLScannerHelper.findSQLs(baseDir, Collections.singletonList(resource), null, null);
+
+        assertEquals(Arrays.asList("src/main/plsql/a.pks", "src/main/plsql/b.pkb", "src/main/plsql/pkg/c.pkb"),
+                files);
+    }
+
+    /**
+     * testScanCache.
+     *
+     * Given : a cached scan result When : the resource is scanned again Then : the
+     * cached result is used until a directory changes
+     */
+    @Test
+    public void testScanCache() throws Exception {
+        File baseDir = folder.newFolder("project");
+        File cacheDirectory = new File(folder.getRoot(), "cache");
+        create(baseDir, "src/test/plsql/old/a.pkg");
+        File directory = new File(baseDir, "src/test/plsql/old");
+        long modified = (System.currentTimeMillis() - 60000) / 1000 * 1000;
+        directory.setLastModified(modified);
+        directory.getParentFile().setLastModified(modified);
+
+        List<String> files = scan(baseDir, cacheDirectory);
+        assertEquals(Arrays.asList("src/test/plsql/old/a.pkg"), files);
+        assertEquals(1, cacheDirectory.list().length);
+
+        // The cache is trusted as long as the directories keep their timestamp.
+        new File(directory, "b.pkg").createNewFile();
+        directory.setLastModified(modified);
+        assertEquals(files, scan(baseDir, cacheDirectory));
+
+        directory.setLastModified(modified + 30000);
+        assertEquals(Arrays.asList("src/test/plsql/old/a.pkg", "src/test/plsql/old/b.pkg"),
+                scan(baseDir, cacheDirectory));
+    }
+
+    /**
+     * testToRegex.
+     *
+     * Given : Ant patterns When : they are converted Then : they follow the Ant
+     * matching rules
+     */
+    @Test
+    public void testToRegex() {
+        assertTrue("a.sql".matches(SQLScannerHelper.toRegex("**/*.sql")));
+        assertTrue("x/y/a.sql".matches(SQLScannerHelper.toRegex("**/*.sql")));
+        assertTrue(!"x/a.sql".matches(SQLScannerHelper.toRegex("*.sql")));
+        assertTrue("x/y/a.sql".matches(SQLScannerHelper.toRegex("x/")));
+        assertTrue("x/a+b.sql".matches(SQLScannerHelper.toRegex("x\\a+?.sql")));
+        assertTrue("x/a.sql".matches(SQLScannerHelper.toRegex("%regex[x/\\w\\.sql]")));
+    }
+
+    private static List<String> scan(File baseDir, File cacheDirectory) {
+        Resource resource = new Resource();
+        resource.setDirectory("src/test/plsql");
+        return SQLScannerHelper.findSQLs(baseDir, Collections.singletonList(resource), null, "**/*.pkg",
+                cacheDirectory);
+    }
+
+    private static void create(File baseDir, String... paths) throws Exception {
+        for (String path : paths) {
+            File file = new File(baseDir, path);
+            file.getParentFile().mkdirs();
+            file.createNewFile();
+        }
+    }
+}
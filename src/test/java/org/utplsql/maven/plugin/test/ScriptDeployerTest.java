@@ -0,0 +1,121 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.deploy.ScriptDeployer;
+
+public class ScriptDeployerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testSplitStatements.
+     *
+     * Given : a SQL*Plus script with commands, a PL/SQL unit and SQL statements
+     * When : it is split Then : the commands are skipped, the unit keeps its
+     * semicolons and the SQL statements lose their terminator
+     */
+    @Test
+    public void testSplitStatements() {
+        String script = "set define off\n"
+                + "prompt Creating the package\n"
+                + "  create or replace package body app.betwnstr as\n"
+                + "  function betwnstr(a varchar2) return varchar2 is\n"
+                + "  begin\n"
+                + "    return a;\n"
+                + "  end;\n"
+                + "end;\n"
+                + "/\n"
+                + "\n"
+                + "grant execute on app.betwnstr to public;\n"
+                + "comment on table app.t is 'a;b';\n"
+                + "begin\n"
+                + "  null;\n"
+                + "end;\n";
+
+        assertEquals(Arrays.asList(
+                "create or replace package body app.betwnstr as\n"
+                        + "  function betwnstr(a varchar2) return varchar2 is\n"
+                        + "  begin\n"
+                        + "    return a;\n"
+                        + "  end;\n"
+                        + "end;",
+                "grant execute on app.betwnstr to public",
+                "comment on table app.t is 'a;b'",
+                "begin\n  null;\nend;"), ScriptDeployer.splitStatements(script));
+    }
+
+    /**
+     * testSplitStatementsWithHeaderComment.
+     *
+     * Given : PL/SQL units headed by a block comment holding semicolons, and a
+     * SQL*Plus execute command When : the script is split Then : the units are
+     * kept whole with their comment, the execute command is run as an anonymous
+     * block and the trailing comment is dropped
+     */
+    @Test
+    public void testSplitStatementsWithHeaderComment() {
+        String script = "/*\n"
+                + " * Package of the betwnstr tests; generated.\n"
+                + " */\n"
+                + "set define off\n"
+                + "create or replace package test_betwnstr as\n"
+                + "  procedure normal_case;\n"
+                + "end;\n"
+                + "/\n"
+                + "/* body */ create or replace package body test_betwnstr as\n"
+                + "  procedure normal_case is begin null; end;\n"
+                + "end;\n"
+                + "/\n"
+                + "exec dbms_output.put_line('done');\n"
+                + "/* end of script; */\n";
+
+        assertEquals(Arrays.asList(
+                "/*\n"
+                        + " * Package of the betwnstr tests; generated.\n"
+                        + " */\n"
+                        + "create or replace package test_betwnstr as\n"
+                        + "  procedure normal_case;\n"
+                        + "end;",
+                "/* body */ create or replace package body test_betwnstr as\n"
+                        + "  procedure normal_case is begin null; end;\n"
+                        + "end;",
+                "begin\ndbms_output.put_line('done');\nend;"), ScriptDeployer.splitStatements(script));
+    }
+
+    /**
+     * testUnmappedScriptCompiledWithErrors.
+     *
+     * Given : a script not mapped to a database object When : its unit compiles
+     * with errors Then : a generic error is returned, the script not being taken
+     * for deployed
+     */
+    @Test
+    public void testUnmappedScriptCompiledWithErrors() throws Exception {
+        File script = folder.newFile("betwnstr.sql");
+        Files.write(script.toPath(), "create or replace function betwnstr return number is\nbegin\nend;\n/\n"
+                .getBytes(StandardCharsets.UTF_8));
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.getWarnings()).thenReturn(new SQLWarning("Warning: execution completed with warning"));
+
+        assertEquals(Collections.singletonList("betwnstr.sql compiled with errors"),
+                new ScriptDeployer().deploy(connection, script, null));
+    }
+}
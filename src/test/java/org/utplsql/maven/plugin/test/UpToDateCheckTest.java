@@ -0,0 +1,95 @@
+package org.utplsql.maven.plugin.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.utplsql.maven.plugin.incremental.Fingerprint;
+import org.utplsql.maven.plugin.incremental.UpToDateCheck;
+
+public class UpToDateCheckTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testRestoreReports.
+     *
+     * Given : a successful run with its reports cached When : a run with the same
+     * fingerprint is checked Then : it is up to date and its reports are restored
+     */
+    @Test
+    public void testRestoreReports() throws Exception {
+        File cache = new File(folder.getRoot(), "utplsql/up-to-date");
+        File report = new File(folder.getRoot(), "utplsql/sonar-test-reporter.xml");
+        report.getParentFile().mkdirs();
+        Files.write(report.toPath(), "<testExecutions/>".getBytes(StandardCharsets.UTF_8));
+        List<File> reports = Collections.singletonList(report);
+
+        String fingerprint = new Fingerprint().add("paths", Arrays.asList("app")).toString();
+        new UpToDateCheck(cache).save(fingerprint, reports);
+        Files.delete(report.toPath());
+
+        UpToDateCheck check = new UpToDateCheck(cache);
+        assertTrue(check.isUpToDate(fingerprint, reports));
+        check.restoreReports(reports);
+        assertEquals("<testExecutions/>", new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * testRestoreReportDirectory.
+     *
+     * Given : a successful run whose report is a directory of files When : a run
+     * with the same fingerprint is checked Then : it is up to date and the
+     * directory is restored with its files
+     */
+    @Test
+    public void testRestoreReportDirectory() throws Exception {
+        File cache = new File(folder.getRoot(), "utplsql/up-to-date");
+        File report = new File(folder.getRoot(), "surefire-reports");
+        new File(report, "suites").mkdirs();
+        Files.write(new File(report, "suites/TEST-app.xml").toPath(), "<testsuite/>".getBytes(StandardCharsets.UTF_8));
+        List<File> reports = Collections.singletonList(report);
+
+        String fingerprint = new Fingerprint().add("paths", Arrays.asList("app")).toString();
+        new UpToDateCheck(cache).save(fingerprint, reports);
+        Files.write(new File(report, "stale.xml").toPath(), "<stale/>".getBytes(StandardCharsets.UTF_8));
+
+        UpToDateCheck check = new UpToDateCheck(cache);
+        assertTrue(check.isUpToDate(fingerprint, reports));
+        check.restoreReports(reports);
+        assertEquals("<testsuite/>", new String(Files.readAllBytes(new File(report, "suites/TEST-app.xml").toPath()),
+                StandardCharsets.UTF_8));
+        assertFalse(new File(report, "stale.xml").exists());
+    }
+
+    /**
+     * testChangedRun.
+     *
+     * Given : a successful run When : a run with another fingerprint or other
+     * reports is checked Then : it is not up to date
+     */
+    @Test
+    public void testChangedRun() throws Exception {
+        File cache = new File(folder.getRoot(), "utplsql/up-to-date");
+        File report = folder.newFile("report.xml");
+        List<File> reports = Collections.singletonList(report);
+
+        String fingerprint = new Fingerprint().add("paths", Arrays.asList("app")).toString();
+        new UpToDateCheck(cache).save(fingerprint, reports);
+
+        UpToDateCheck check = new UpToDateCheck(cache);
+        assertFalse(check.isUpToDate(new Fingerprint().add("paths", Arrays.asList("app", "lib")).toString(), reports));
+        assertFalse(check.isUpToDate(fingerprint, Collections.emptyList()));
+    }
+}
@@ -2,6 +2,8 @@ package org.utplsql.maven.plugin.test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -14,11 +16,26 @@ import static org.powermock.api.mockito.PowerMockito.when;
 import java.io.File;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.maven.execution.BuildSuccess;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.testing.MojoRule;
+import org.apache.maven.project.MavenProject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -35,7 +52,9 @@ import org.utplsql.api.Version;
 import org.utplsql.api.reporter.Reporter;
 import org.utplsql.api.reporter.ReporterFactory;
 import org.utplsql.maven.plugin.UtPLSQLMojo;
+import org.utplsql.maven.plugin.helper.DataSourceHelper;
 import org.utplsql.maven.plugin.model.ReporterParameter;
+import org.utplsql.maven.plugin.model.TargetParameter;
 import org.utplsql.maven.plugin.reporter.ReporterWriter;
 
 @RunWith(PowerMockRunner.class)
@@ -324,4 +343,183 @@ public class UtPLSQLMojoTest {
         assertEquals("UT_DOCUMENTATION_REPORTER", reporterList.get(0).getTypeName());
         verify(reporterList.get(0)).init(mockConnection);
     }
+
+    /**
+     * testCoverageOnlyReporter.
+     * 
+     * Given : a pom.xml with a coverage reporter When : the reporters are
+     * initialized in coverage only mode Then : a single coveralls reporter is
+     * created in the database
+     */
+    @Test
+    public void testCoverageOnlyReporter() throws Exception {
+        UtPLSQLMojo utplsqlMojo = (UtPLSQLMojo) rule
+                .lookupConfiguredMojo(new File("src/test/resources/defaultConsoleOutputBehaviour/"), "test");
+        Assert.assertNotNull(utplsqlMojo);
+        Whitebox.setInternalState(utplsqlMojo, "coverageOnly", true);
+
+        Reporter mockReporter = mock(Reporter.class);
+        when(mockReporterFactory.createReporter(anyString())).thenReturn(mockReporter);
+
+        List<Reporter> reporterList = Whitebox.invokeMethod(utplsqlMojo, "initReporters", mockConnection, mockVersion,
+                mockReporterFactory);
+
+        assertEquals(Collections.singletonList(mockReporter), reporterList);
+        verify(mockReporterFactory).createReporter("UT_COVERALLS_REPORTER");
+        verifyNoMoreInteractions(mockReporterFactory);
+        verify(mockReporter).init(mockConnection);
+    }
+
+    /**
+     * testInvalidReporterCompression.
+     * 
+     * Given : a reporter with an unknown compression When : the reporter
+     * parameters are checked Then : it should throw a MojoExecutionException
+     * before any connection is opened
+     */
+    @Test
+    public void testInvalidReporterCompression() throws Exception {
+        UtPLSQLMojo utplsqlMojo = (UtPLSQLMojo) rule
+                .lookupConfiguredMojo(new File("src/test/resources/defaultConsoleOutputBehaviour/"), "test");
+        Assert.assertNotNull(utplsqlMojo);
+
+        List<ReporterParameter> reporterParameters = Whitebox.getInternalState(utplsqlMojo, "reporters");
+        reporterParameters.get(1).setCompression("lz4");
+
+        thrown.expect(MojoExecutionException.class);
+        thrown.expectMessage("Invalid <compression> of reporter");
+
+        Whitebox.invokeMethod(utplsqlMojo, "checkReporterParameters");
+    }
+
+    /**
+     * testTargets.
+     * 
+     * Given : a pom.xml with two targets When : the execution is copied for each
+     * target Then : each copy gets the target connection settings, defaulting to
+     * the plugin ones, and its own build directory
+     */
+    @Test
+    public void testTargets() throws Exception {
+        UtPLSQLMojo utplsqlMojo = (UtPLSQLMojo) rule.lookupConfiguredMojo(new File("src/test/resources/targets/"),
+                "test");
+        Assert.assertNotNull(utplsqlMojo);
+
+        List<TargetParameter> targets = Whitebox.getInternalState(utplsqlMojo, "targets");
+        assertEquals(2, targets.size());
+        String targetDir = Whitebox.getInternalState(utplsqlMojo, "targetDir");
+
+        UtPLSQLMojo tenant = Whitebox.invokeMethod(utplsqlMojo, "copyFor", targets.get(0), 0);
+        assertEquals("tenant1", (String) Whitebox.getInternalState(tenant, "user"));
+        assertEquals((String) Whitebox.getInternalState(utplsqlMojo, "url"), Whitebox.getInternalState(tenant, "url"));
+        assertEquals(Collections.singletonList("app"), (List<?>) Whitebox.getInternalState(tenant, "paths"));
+        assertEquals(new File(targetDir, "utplsql-targets/tenant1").getPath(),
+                (String) Whitebox.getInternalState(tenant, "targetDir"));
+        assertTrue(((List<?>) Whitebox.getInternalState(tenant, "targets")).isEmpty());
+
+        UtPLSQLMojo other = Whitebox.invokeMethod(utplsqlMojo, "copyFor", targets.get(1), 1);
+        assertEquals("jdbc:oracle:thin:@localhost:1521/freepdb1", (String) Whitebox.getInternalState(other, "url"));
+        assertEquals((String) Whitebox.getInternalState(utplsqlMojo, "user"), Whitebox.getInternalState(other, "user"));
+        assertEquals(Collections.singletonList("app.test_betwnstr"), (List<?>) Whitebox.getInternalState(other, "paths"));
+        assertEquals(new File(targetDir, "utplsql-targets/target-2").getPath(),
+                (String) Whitebox.getInternalState(other, "targetDir"));
+    }
+
+    /**
+     * testTargetsScanOwnResources.
+     * 
+     * Given : a pom.xml whose sources and tests have no includes tag When : two
+     * target copies scan their resources at the same time Then : each copy finds
+     * the files with its own resources, the resources of the execution being left
+     * untouched
+     */
+    @Test
+    public void testTargetsScanOwnResources() throws Exception {
+        UtPLSQLMojo utplsqlMojo = (UtPLSQLMojo) rule
+                .lookupConfiguredMojo(new File("src/test/resources/partialSourceAndTestTag/missingIncludes/"), "test");
+        Assert.assertNotNull(utplsqlMojo);
+
+        List<Resource> sources = Whitebox.getInternalState(utplsqlMojo, "sources");
+        List<Resource> tests = Whitebox.getInternalState(utplsqlMojo, "tests");
+
+        List<UtPLSQLMojo> copies = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            TargetParameter target = new TargetParameter();
+            target.setName("target" + i);
+            copies.add(Whitebox.invokeMethod(utplsqlMojo, "copyFor", target, i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(copies.size());
+        try {
+            List<Future<List<FileMapperOptions>>> scans = new ArrayList<>();
+            for (UtPLSQLMojo copy : copies) {
+                scans.add(executor.submit(() -> Arrays.asList(
+                        Whitebox.<FileMapperOptions>invokeMethod(copy, "buildSourcesOptions"),
+                        Whitebox.<FileMapperOptions>invokeMethod(copy, "buildTestsOptions"))));
+            }
+            for (Future<List<FileMapperOptions>> scan : scans) {
+                assertEquals(2, scan.get().get(0).getFilePaths().size());
+                assertEquals(2, scan.get().get(1).getFilePaths().size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, sources.size());
+        assertTrue(sources.get(0).getIncludes().isEmpty());
+        assertEquals(1, tests.size());
+        assertTrue(tests.get(0).getIncludes().isEmpty());
+        for (UtPLSQLMojo copy : copies) {
+            assertEquals(1, ((List<?>) Whitebox.getInternalState(copy, "sources")).size());
+            assertEquals(1, ((List<?>) Whitebox.getInternalState(copy, "tests")).size());
+        }
+    }
+
+    /**
+     * testPoolsSharedByModules.
+     * 
+     * Given : a build of two modules sharing a pool When : the modules run one
+     * after the other or at the same time Then : the pool is only closed once no
+     * execution is running and no module is left to build
+     */
+    @Test
+    public void testPoolsSharedByModules() throws Exception {
+        MavenProject first = mock(MavenProject.class);
+        MavenProject second = mock(MavenProject.class);
+        MavenSession session = mock(MavenSession.class);
+        MavenExecutionResult result = new DefaultMavenExecutionResult();
+        when(session.getStartTime()).thenReturn(new Date());
+        when(session.getProjects()).thenReturn(Arrays.asList(first, second));
+        when(session.getResult()).thenReturn(result);
+
+        UtPLSQLMojo firstMojo = moduleMojo(session, first);
+        UtPLSQLMojo secondMojo = moduleMojo(session, second);
+
+        Whitebox.invokeMethod(firstMojo, "startBuild");
+        DataSource ds = DataSourceHelper.getDataSource("jdbc:oracle:thin:@localhost:1521:xe", "app", "pass",
+                new Properties(), true);
+        Whitebox.invokeMethod(firstMojo, "endBuild");
+        assertSame(ds, DataSourceHelper.getDataSource("jdbc:oracle:thin:@localhost:1521:xe", "app", "pass",
+                new Properties(), true));
+
+        Whitebox.invokeMethod(firstMojo, "startBuild");
+        Whitebox.invokeMethod(secondMojo, "startBuild");
+        Whitebox.invokeMethod(firstMojo, "endBuild");
+        result.addBuildSummary(new BuildSuccess(first, 0));
+        assertSame(ds, DataSourceHelper.getDataSource("jdbc:oracle:thin:@localhost:1521:xe", "app", "pass",
+                new Properties(), true));
+
+        Whitebox.invokeMethod(secondMojo, "endBuild");
+        assertNotSame(ds, DataSourceHelper.getDataSource("jdbc:oracle:thin:@localhost:1521:xe", "app", "pass",
+                new Properties(), true));
+        DataSourceHelper.closePools();
+    }
+
+    private UtPLSQLMojo moduleMojo(MavenSession session, MavenProject project) throws Exception {
+        UtPLSQLMojo utplsqlMojo = (UtPLSQLMojo) rule
+                .lookupConfiguredMojo(new File("src/test/resources/defaultConsoleOutputBehaviour/"), "test");
+        Whitebox.setInternalState(utplsqlMojo, "mavenSession", session);
+        Whitebox.setInternalState(utplsqlMojo, "project", project);
+        return utplsqlMojo;
+    }
 }